@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse a JSON array of records with and without the structural index:
+ * mvn -P benchmark test-compile and then run the main method with the test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"false", "true"})
+    private boolean useStructuralIndex;
+
+    private String json;
+    private LoadSettings settings;
+
+    @Setup
+    public void setup() {
+        settings = LoadSettings.builder().setUseStructuralIndex(useStructuralIndex).build();
+        StringBuilder builder = new StringBuilder("[\n");
+        for (int i = 0; i < 20000; i++) {
+            if (i > 0) {
+                builder.append(",\n");
+            }
+            builder.append("  {\"id\": ").append(i).append(", \"name\": \"record ").append(i)
+                    .append("\", \"active\": true, \"tags\": [\"a\", \"b\\u00e9\"], \"score\": 1.5e3}");
+        }
+        json = builder.append("\n]\n").toString();
+    }
+
+    @Benchmark
+    public void parseJson(Blackhole blackhole) {
+        Parser parser = FlowIndexParser.create(json, settings);
+        while (parser.hasNext()) {
+            blackhole.consume(parser.next());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse all the valid documents of the comprehensive test suite, the allocation rate is reported by
+ * the GC profiler: mvn -P benchmark test-compile and then run the main method with the test classpath
+ * from the project directory
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SuiteParserBenchmark {
+
+    private final List<String> documents = new ArrayList<>();
+    private LoadSettings settings;
+
+    @Setup
+    public void setup() throws IOException {
+        settings = LoadSettings.builder().build();
+        Path suite = Paths.get("src/test/resources/comprehensive-test-suite-data");
+        try (DirectoryStream<Path> folders = Files.newDirectoryStream(suite)) {
+            for (Path folder : folders) {
+                Path input = folder.resolve("in.yaml");
+                if (Files.exists(input) && !Files.exists(folder.resolve("error"))) {
+                    documents.add(new String(Files.readAllBytes(input), StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseSuite(Blackhole blackhole) {
+        for (String document : documents) {
+            Parser parser = new ParserImpl(new StreamReader(document, settings), settings);
+            while (parser.hasNext()) {
+                blackhole.consume(parser.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public void cursorSuite(Blackhole blackhole) {
+        for (String document : documents) {
+            YamlCursor cursor = new YamlCursor(new StreamReader(document, settings), settings);
+            while (cursor.hasNext()) {
+                blackhole.consume(cursor.next());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SuiteParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
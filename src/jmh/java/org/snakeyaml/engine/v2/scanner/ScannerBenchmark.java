@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.scanner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan a large flow mapping. The time must grow linearly with the number of entries:
+ * mvn -P benchmark test-compile and then run the main method with the test classpath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScannerBenchmark {
+
+    @Param({"5000", "50000"})
+    private int entries;
+
+    private String flowMapping;
+    private LoadSettings settings;
+
+    @Setup
+    public void setup() {
+        settings = LoadSettings.builder().build();
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append("key").append(i).append(": [value").append(i).append(", {nested: ").append(i).append("}]");
+        }
+        flowMapping = builder.append("}\n").toString();
+    }
+
+    @Benchmark
+    public void scanFlowMapping(Blackhole blackhole) {
+        ScannerImpl scanner = new ScannerImpl(new StreamReader(flowMapping, settings));
+        while (scanner.hasNext()) {
+            blackhole.consume(scanner.next());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ScannerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.scanner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.lowlevel.Parse;
+import org.snakeyaml.engine.v2.events.Event;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read a 100 MB stream. Run with the GC profiler to see the allocation rate of the data window:
+ * mvn -P benchmark test-compile and then run the main method with the test classpath.
+ * The window is reused in the steady state unless the mark data is retained (then a new window
+ * is allocated for every refill after a mark).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamReaderBenchmark {
+
+    private static final int SIZE = 100 * 1024 * 1024;
+
+    @Param({"true", "false"})
+    private boolean useMarks;
+
+    @Param({"false", "true"})
+    private boolean retainMarkData;
+
+    private byte[] manyLines;
+    private byte[] longScalars;
+    private LoadSettings settings;
+
+    @Setup
+    public void setup() {
+        settings = LoadSettings.builder().setUseMarks(useMarks).setRetainMarkData(retainMarkData).build();
+        StringBuilder builder = new StringBuilder(SIZE);
+        for (int i = 0; builder.length() < SIZE; i++) {
+            builder.append("key").append(i).append(": value with some text ").append(i).append('\n');
+        }
+        manyLines = builder.toString().getBytes(StandardCharsets.UTF_8);
+        // plain scalars of 1 MB each require a long lookahead
+        builder.setLength(0);
+        StringBuilder scalar = new StringBuilder();
+        while (scalar.length() < 1024 * 1024) {
+            scalar.append("long-plain-scalar-");
+        }
+        for (int i = 0; builder.length() < SIZE; i++) {
+            builder.append("- ").append(scalar).append(i).append('\n');
+        }
+        longScalars = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void readCodePoints(Blackhole blackhole) {
+        StreamReader reader = new StreamReader(new ByteArrayInputStream(manyLines), settings);
+        int codePoint;
+        while ((codePoint = reader.peek()) != '\0') {
+            blackhole.consume(codePoint);
+            reader.forward();
+        }
+    }
+
+    @Benchmark
+    public void parseManyLines(Blackhole blackhole) {
+        for (Event event : new Parse(settings).parseInputStream(new ByteArrayInputStream(manyLines))) {
+            blackhole.consume(event);
+        }
+    }
+
+    @Benchmark
+    public void parseLongScalars(Blackhole blackhole) {
+        for (Event event : new Parse(settings).parseInputStream(new ByteArrayInputStream(longScalars))) {
+            blackhole.consume(event);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StreamReaderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -18,15 +18,36 @@ package org.snakeyaml.engine.v2.api;
 import org.snakeyaml.engine.v2.composer.Composer;
 import org.snakeyaml.engine.v2.constructor.BaseConstructor;
 import org.snakeyaml.engine.v2.constructor.StandardConstructor;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
 import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.parser.DocumentSplitter;
+import org.snakeyaml.engine.v2.parser.FlowIndexParser;
 import org.snakeyaml.engine.v2.parser.ParserImpl;
 import org.snakeyaml.engine.v2.scanner.StreamReader;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Common way to load Java instance(s). This class is not thread-safe. Which means that all the methods of the same
@@ -38,6 +59,10 @@ public class Load {
 
     private LoadSettings settings;
     private BaseConstructor constructor;
+    /**
+     * Create the constructors for the documents loaded in parallel (null when the constructor is given)
+     */
+    private Supplier<BaseConstructor> constructorFactory;
 
     /**
      * Create instance to parse the incoming YAML data and create Java instances
@@ -45,7 +70,7 @@ public class Load {
      * @param settings - configuration
      */
     public Load(LoadSettings settings) {
-        this(settings, new StandardConstructor(settings));
+        this(settings, () -> new StandardConstructor(settings));
     }
 
     /**
@@ -61,16 +86,37 @@ public class Load {
         this.constructor = constructor;
     }
 
+    /**
+     * Create instance to parse the incoming YAML data and create Java instances.
+     * The constructor is not thread-safe, the factory is used to create a new one for every document
+     * loaded in parallel.
+     *
+     * @param settings           - configuration
+     * @param constructorFactory - create custom YAML constructors
+     */
+    public Load(LoadSettings settings, Supplier<BaseConstructor> constructorFactory) {
+        this(settings, Objects.requireNonNull(constructorFactory, "Supplier cannot be null").get());
+        this.constructorFactory = constructorFactory;
+    }
+
     private Composer createComposer(StreamReader streamReader) {
         return new Composer(new ParserImpl(streamReader, settings), settings);
     }
 
     protected Composer createComposer(InputStream yamlStream) {
-        return createComposer(new StreamReader(new YamlUnicodeReader(yamlStream), settings));
+        return createComposer(new StreamReader(yamlStream, settings));
+    }
+
+    protected Composer createComposer(FileChannel yamlChannel) {
+        return createComposer(new StreamReader(yamlChannel, settings));
     }
 
     protected Composer createComposer(String yaml) {
-        return createComposer(new StreamReader(yaml, settings));
+        return new Composer(FlowIndexParser.create(yaml, settings), settings);
+    }
+
+    protected Composer createComposer(CharSequence yaml) {
+        return new Composer(FlowIndexParser.create(yaml, settings), settings);
     }
 
     protected Composer createComposer(Reader yamlReader) {
@@ -96,6 +142,35 @@ public class Load {
         return loadOne(createComposer(yamlStream));
     }
 
+    /**
+     * Parse the only YAML document in a file and produce the corresponding
+     * Java object. The file is memory-mapped and read from the current position of the channel.
+     *
+     * @param yamlChannel - data to load from (BOM is respected to detect encoding and removed from the data)
+     * @return parsed Java instance
+     */
+    public Object loadFromChannel(FileChannel yamlChannel) {
+        Objects.requireNonNull(yamlChannel, "FileChannel cannot be null");
+        return loadOne(createComposer(yamlChannel));
+    }
+
+    /**
+     * Parse the only YAML document in a file and produce the corresponding
+     * Java object. The file is memory-mapped.
+     *
+     * @param yamlPath - file to load from (BOM is respected to detect encoding and removed from the data)
+     * @return parsed Java instance
+     * @throws YamlEngineException if the file cannot be opened
+     */
+    public Object loadFromPath(Path yamlPath) {
+        Objects.requireNonNull(yamlPath, "Path cannot be null");
+        try (FileChannel channel = FileChannel.open(yamlPath, StandardOpenOption.READ)) {
+            return loadOne(createComposer(channel));
+        } catch (IOException e) {
+            throw new YamlEngineException(e);
+        }
+    }
+
     /**
      * Parse a YAML document and create a Java instance
      *
@@ -119,6 +194,34 @@ public class Load {
         return loadOne(createComposer(yaml));
     }
 
+    /**
+     * Parse a YAML document and create a Java instance. The characters are read directly,
+     * they must not be changed until the instance is created.
+     *
+     * @param yaml - YAML data to load from (BOM must not be present)
+     * @return parsed Java instance
+     * @throws org.snakeyaml.engine.v2.exceptions.YamlEngineException if the YAML is not valid
+     */
+    public Object loadFromCharSequence(CharSequence yaml) {
+        Objects.requireNonNull(yaml, "CharSequence cannot be null");
+        return loadOne(createComposer(yaml));
+    }
+
+    /**
+     * Parse a YAML document in a part of the array and create a Java instance. The characters are read directly,
+     * they must not be changed until the instance is created.
+     *
+     * @param yaml   - YAML data to load from (BOM must not be present)
+     * @param offset - the index of the first char to load
+     * @param length - the number of chars to load
+     * @return parsed Java instance
+     * @throws org.snakeyaml.engine.v2.exceptions.YamlEngineException if the YAML is not valid
+     */
+    public Object loadFromCharArray(char[] yaml, int offset, int length) {
+        Objects.requireNonNull(yaml, "char[] cannot be null");
+        return loadOne(createComposer(CharBuffer.wrap(yaml, offset, length)));
+    }
+
     // Load all the documents
 
     private Iterable<Object> loadAll(Composer composer) {
@@ -135,7 +238,22 @@ public class Load {
      */
     public Iterable<Object> loadAllFromInputStream(InputStream yamlStream) {
         Objects.requireNonNull(yamlStream, "InputStream cannot be null");
-        Composer composer = createComposer(new StreamReader(new YamlUnicodeReader(yamlStream), settings));
+        Composer composer = createComposer(new StreamReader(yamlStream, settings));
+        return loadAll(composer);
+    }
+
+    /**
+     * Parse all YAML documents in a file and produce corresponding Java
+     * objects. The file is memory-mapped and read from the current position of the channel.
+     * The documents are parsed only when the iterator is invoked.
+     *
+     * @param yamlChannel - YAML data to load from (BOM is respected to detect encoding and removed from the data).
+     *                    It must stay open until all the documents are parsed
+     * @return an Iterable over the parsed Java objects in this stream in proper sequence
+     */
+    public Iterable<Object> loadAllFromChannel(FileChannel yamlChannel) {
+        Objects.requireNonNull(yamlChannel, "FileChannel cannot be null");
+        Composer composer = createComposer(yamlChannel);
         return loadAll(composer);
     }
 
@@ -162,10 +280,178 @@ public class Load {
      */
     public Iterable<Object> loadAllFromString(String yaml) {
         Objects.requireNonNull(yaml, "String cannot be null");
-        Composer composer = createComposer(new StreamReader(yaml, settings));
+        Composer composer = createComposer(yaml);
         return loadAll(composer);
     }
 
+    /**
+     * Parse all YAML documents in a CharSequence and produce corresponding Java
+     * objects. The documents are parsed only when the iterator is invoked.
+     * The characters are read directly, they must not be changed until all the documents are parsed.
+     *
+     * @param yaml - YAML data to load from (BOM must not be present)
+     * @return an Iterable over the parsed Java objects in this stream in proper sequence
+     */
+    public Iterable<Object> loadAllFromCharSequence(CharSequence yaml) {
+        Objects.requireNonNull(yaml, "CharSequence cannot be null");
+        Composer composer = createComposer(yaml);
+        return loadAll(composer);
+    }
+
+    /**
+     * Parse all YAML documents in a CharSequence and produce corresponding Java objects in parallel.
+     * The stream is split at the document markers ('---' and '...' at the beginning of a line),
+     * then every document is parsed, composed and constructed on its own (in the common ForkJoinPool
+     * or in the pool where the terminal operation is invoked). The stream is ordered, use
+     * {@link Stream#unordered()} or {@link Stream#forEach} when the order is not needed.
+     * When the instance is created with a constructor (not with a factory) the documents are loaded sequentially.
+     * The characters are read directly, they must not be changed until all the documents are loaded.
+     *
+     * @param yaml - YAML data to load from (BOM must not be present)
+     * @return the parsed Java objects in this stream
+     */
+    public Stream<Object> loadAllParallel(CharSequence yaml) {
+        Objects.requireNonNull(yaml, "CharSequence cannot be null");
+        List<DocumentSplitter.Part> parts = DocumentSplitter.split(yaml);
+        if (constructorFactory == null) {
+            return parts.stream().flatMap(part -> loadPart(part, constructor));
+        }
+        return parts.parallelStream().flatMap(part -> loadPart(part, constructorFactory.get()));
+    }
+
+    private Stream<Object> loadPart(DocumentSplitter.Part part, BaseConstructor partConstructor) {
+        Composer composer = createComposer(new StreamReader(part.getData(), settings, part.getIndex(), part.getLine()));
+        List<Object> documents = new ArrayList<>(1);
+        while (composer.hasNext()) {
+            documents.add(partConstructor.constructSingleDocument(Optional.of(composer.next())));
+        }
+        return documents.stream();
+    }
+
+    private Iterable<Object> loadAllPipelined(Composer composer, Executor executor, int queueSize) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("The queue size must be positive: " + queueSize);
+        }
+        Iterator<Object> result;
+        if (constructorFactory == null) {
+            // the only constructor cannot be shared with the workers
+            result = new PipelinedIterator(composer, new ConstructorPool(() -> constructor), Runnable::run, queueSize);
+        } else {
+            result = new PipelinedIterator(composer, new ConstructorPool(constructorFactory), executor, queueSize);
+        }
+        return new YamlIterable(result);
+    }
+
+    /**
+     * Parse all YAML documents in a stream and produce corresponding Java objects. The documents are parsed
+     * and composed by the thread which iterates, up to queueSize documents ahead, and they are constructed
+     * by the executor. The objects are returned in the order of the documents.
+     * When the instance is created with a constructor (not with a factory) the documents are constructed
+     * by the iterating thread.
+     *
+     * @param yamlStream - YAML data to load from (BOM is respected to detect encoding and removed from the data)
+     * @param executor   - the workers to construct the documents
+     * @param queueSize  - the maximum amount of the documents which are composed but not yet returned
+     * @return an Iterable over the parsed Java objects in this stream in proper sequence
+     */
+    public Iterable<Object> loadAllPipelined(InputStream yamlStream, Executor executor, int queueSize) {
+        Objects.requireNonNull(yamlStream, "InputStream cannot be null");
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        return loadAllPipelined(createComposer(yamlStream), executor, queueSize);
+    }
+
+    /**
+     * Parse all YAML documents in a stream and produce corresponding Java objects. The documents are parsed
+     * and composed by the thread which iterates, up to queueSize documents ahead, and they are constructed
+     * by the executor. The objects are returned in the order of the documents.
+     * When the instance is created with a constructor (not with a factory) the documents are constructed
+     * by the iterating thread.
+     *
+     * @param yamlReader - YAML data to load from (BOM must not be present)
+     * @param executor   - the workers to construct the documents
+     * @param queueSize  - the maximum amount of the documents which are composed but not yet returned
+     * @return an Iterable over the parsed Java objects in this stream in proper sequence
+     */
+    public Iterable<Object> loadAllPipelined(Reader yamlReader, Executor executor, int queueSize) {
+        Objects.requireNonNull(yamlReader, "Reader cannot be null");
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        return loadAllPipelined(createComposer(yamlReader), executor, queueSize);
+    }
+
+    /**
+     * Parse all YAML documents in a CharSequence and produce corresponding Java objects. The documents are
+     * parsed and composed by the thread which iterates, up to queueSize documents ahead, and they are
+     * constructed by the executor. The objects are returned in the order of the documents.
+     * When the instance is created with a constructor (not with a factory) the documents are constructed
+     * by the iterating thread.
+     *
+     * @param yaml      - YAML data to load from (BOM must not be present)
+     * @param executor  - the workers to construct the documents
+     * @param queueSize - the maximum amount of the documents which are composed but not yet returned
+     * @return an Iterable over the parsed Java objects in this stream in proper sequence
+     */
+    public Iterable<Object> loadAllPipelined(CharSequence yaml, Executor executor, int queueSize) {
+        Objects.requireNonNull(yaml, "CharSequence cannot be null");
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        return loadAllPipelined(createComposer(yaml), executor, queueSize);
+    }
+
+    /**
+     * Load many independent files concurrently. Every file must contain a single document
+     * (as for {@link #loadFromPath(Path)}). The settings are shared, the constructors are reused
+     * by the workers. The reader window and the buffers of the scanner are not reused, they are created
+     * for every file. An invalid file (also a file which is nested deeper than
+     * {@link LoadSettings#getMaxNestingDepth()}) does not stop the batch, the error is returned in its result.
+     * When the instance is created with a constructor (not with a factory) the files are loaded
+     * by the calling thread.
+     *
+     * @param files    - the files to load
+     * @param executor - the workers to load the files
+     * @return the results in the order of the files (the method returns when all the files are loaded)
+     */
+    public List<LoadResult> loadFiles(Collection<Path> files, Executor executor) {
+        Objects.requireNonNull(files, "Collection cannot be null");
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        final ConstructorPool constructors;
+        final Executor workers;
+        if (constructorFactory == null) {
+            // the only constructor cannot be shared with the workers
+            constructors = new ConstructorPool(() -> constructor);
+            workers = Runnable::run;
+        } else {
+            constructors = new ConstructorPool(constructorFactory);
+            workers = executor;
+        }
+        List<Path> paths = new ArrayList<>(files);
+        List<CompletableFuture<LoadResult>> futures = new ArrayList<>(paths.size());
+        for (Path file : paths) {
+            Objects.requireNonNull(file, "Path cannot be null");
+            futures.add(CompletableFuture.supplyAsync(() -> loadFile(file, constructors), workers));
+        }
+        List<LoadResult> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                // an Error which is not caught by loadFile() must not abort the whole batch
+                results.add(LoadResult.failure(paths.get(i), new YamlEngineException(e.getCause())));
+            }
+        }
+        return results;
+    }
+
+    private LoadResult loadFile(Path file, ConstructorPool constructors) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return LoadResult.success(file, constructors.construct(createComposer(channel).getSingleNode()));
+        } catch (IOException e) {
+            return LoadResult.failure(file, new YamlEngineException(e));
+        } catch (YamlEngineException e) {
+            return LoadResult.failure(file, e);
+        } catch (RuntimeException e) {
+            return LoadResult.failure(file, new YamlEngineException(e));
+        }
+    }
+
     private static class YamlIterable implements Iterable<Object> {
         private Iterator<Object> iterator;
 
@@ -204,6 +490,109 @@ public class Load {
             throw new UnsupportedOperationException("Removing is not supported.");
         }
     }
+
+    /**
+     * The constructors for the concurrent work. Every construction takes a free constructor
+     * (or creates a new one), so a constructor is never used by two threads at once.
+     */
+    private static class ConstructorPool {
+        private final Supplier<BaseConstructor> constructorFactory;
+        private final Queue<BaseConstructor> freeConstructors = new ConcurrentLinkedQueue<>();
+
+        public ConstructorPool(Supplier<BaseConstructor> constructorFactory) {
+            this.constructorFactory = constructorFactory;
+        }
+
+        public Object construct(Optional<Node> node) {
+            BaseConstructor constructor = freeConstructors.poll();
+            if (constructor == null) {
+                constructor = constructorFactory.get();
+            }
+            Object data = constructor.constructSingleDocument(node);
+            // the constructor which failed may keep the state of the document, it is not reused
+            freeConstructors.add(constructor);
+            return data;
+        }
+    }
+
+    /**
+     * Compose the documents ahead and construct them in the executor.
+     */
+    private static class PipelinedIterator implements Iterator<Object> {
+        private final Composer composer;
+        private final ConstructorPool constructors;
+        private final Executor executor;
+        private final int queueSize;
+        private final Deque<CompletableFuture<Object>> pending = new ArrayDeque<>();
+        private boolean composed = false;
+        /**
+         * The failure to compose the document after the pending ones
+         */
+        private RuntimeException failure;
+
+        public PipelinedIterator(Composer composer, ConstructorPool constructors, Executor executor, int queueSize) {
+            this.composer = composer;
+            this.constructors = constructors;
+            this.executor = executor;
+            this.queueSize = queueSize;
+        }
+
+        private void fill() {
+            while (!composed && failure == null && pending.size() < queueSize) {
+                try {
+                    if (composer.hasNext()) {
+                        Node node = composer.next();
+                        pending.add(CompletableFuture.supplyAsync(() -> constructors.construct(Optional.of(node)),
+                                executor));
+                    } else {
+                        composed = true;
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            if (!pending.isEmpty()) {
+                return true;
+            }
+            if (failure != null) {
+                RuntimeException e = failure;
+                failure = null;
+                composed = true;
+                throw e;
+            }
+            return false;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No document is available.");
+            }
+            CompletableFuture<Object> result = pending.poll();
+            // keep composing while the document is constructed
+            fill();
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new YamlEngineException(e.getCause());
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Removing is not supported.");
+        }
+    }
 }
 
 
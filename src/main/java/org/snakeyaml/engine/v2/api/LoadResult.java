@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.api;
+
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of loading one file in a batch: either the loaded instance or the error.
+ */
+public final class LoadResult {
+
+    private final Path path;
+    private final Object value;
+    private final YamlEngineException error;
+
+    private LoadResult(Path path, Object value, YamlEngineException error) {
+        Objects.requireNonNull(path, "Path cannot be null");
+        this.path = path;
+        this.value = value;
+        this.error = error;
+    }
+
+    static LoadResult success(Path path, Object value) {
+        return new LoadResult(path, value, null);
+    }
+
+    static LoadResult failure(Path path, YamlEngineException error) {
+        Objects.requireNonNull(error, "YamlEngineException cannot be null");
+        return new LoadResult(path, null, error);
+    }
+
+    /**
+     * @return the loaded file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return true if the file is loaded without errors
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Get the loaded instance
+     *
+     * @return the instance (null when the document is empty)
+     * @throws YamlEngineException if the file could not be loaded
+     */
+    public Object getValue() {
+        if (error != null) {
+            throw error;
+        }
+        return value;
+    }
+
+    /**
+     * @return the reason why the file could not be loaded
+     */
+    public Optional<YamlEngineException> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    @Override
+    public String toString() {
+        return "<LoadResult path=" + path + (error == null ? "; value=" + value : "; error=" + error.getMessage()) + ">";
+    }
+}
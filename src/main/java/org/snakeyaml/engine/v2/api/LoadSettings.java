@@ -15,9 +15,11 @@
  */
 package org.snakeyaml.engine.v2.api;
 
+import org.snakeyaml.engine.v2.common.ScalarInternPolicy;
 import org.snakeyaml.engine.v2.common.SpecVersion;
 import org.snakeyaml.engine.v2.env.EnvConfig;
 import org.snakeyaml.engine.v2.nodes.Tag;
+import org.snakeyaml.engine.v2.parser.PathFilter;
 import org.snakeyaml.engine.v2.resolver.ScalarResolver;
 
 import java.util.List;
@@ -44,8 +46,15 @@ public final class LoadSettings {
     private final boolean allowDuplicateKeys;
     private final boolean allowRecursiveKeys;
     private final int maxAliasesForCollections;
+    private final int maxNestingDepth;
     private final boolean useMarks;
+    private final boolean retainMarkData;
+    private final boolean useScalarSlices;
+    private final ScalarInternPolicy scalarInternPolicy;
+    private final int scalarInternCapacity;
+    private final boolean useStructuralIndex;
     private final Optional<EnvConfig> envConfig;
+    private final Optional<PathFilter> pathFilter;
 
     //general
     private final Map<SettingKey, Object> customProperties;
@@ -54,8 +63,10 @@ public final class LoadSettings {
                  ScalarResolver scalarResolver, IntFunction<List> defaultList,
                  IntFunction<Set> defaultSet, IntFunction<Map> defaultMap,
                  UnaryOperator<SpecVersion> versionFunction, Integer bufferSize,
-                 boolean allowDuplicateKeys, boolean allowRecursiveKeys, int maxAliasesForCollections,
-                 boolean useMarks, Map<SettingKey, Object> customProperties, Optional<EnvConfig> envConfig) {
+                 boolean allowDuplicateKeys, boolean allowRecursiveKeys, int maxAliasesForCollections, int maxNestingDepth,
+                 boolean useMarks, boolean retainMarkData, boolean useScalarSlices, ScalarInternPolicy scalarInternPolicy,
+                 int scalarInternCapacity, boolean useStructuralIndex, Map<SettingKey, Object> customProperties, Optional<EnvConfig> envConfig,
+                 Optional<PathFilter> pathFilter) {
         this.label = label;
         this.tagConstructors = tagConstructors;
         this.scalarResolver = scalarResolver;
@@ -67,9 +78,16 @@ public final class LoadSettings {
         this.allowDuplicateKeys = allowDuplicateKeys;
         this.allowRecursiveKeys = allowRecursiveKeys;
         this.maxAliasesForCollections = maxAliasesForCollections;
+        this.maxNestingDepth = maxNestingDepth;
         this.useMarks = useMarks;
+        this.retainMarkData = retainMarkData;
+        this.useScalarSlices = useScalarSlices;
+        this.scalarInternPolicy = scalarInternPolicy;
+        this.scalarInternCapacity = scalarInternCapacity;
+        this.useStructuralIndex = useStructuralIndex;
         this.customProperties = customProperties;
         this.envConfig = envConfig;
+        this.pathFilter = pathFilter;
     }
 
     public static final LoadSettingsBuilder builder() {
@@ -116,6 +134,26 @@ public final class LoadSettings {
         return useMarks;
     }
 
+    public boolean getRetainMarkData() {
+        return retainMarkData;
+    }
+
+    public boolean getUseScalarSlices() {
+        return useScalarSlices;
+    }
+
+    public ScalarInternPolicy getScalarInternPolicy() {
+        return scalarInternPolicy;
+    }
+
+    public int getScalarInternCapacity() {
+        return scalarInternCapacity;
+    }
+
+    public boolean getUseStructuralIndex() {
+        return useStructuralIndex;
+    }
+
     public Function<SpecVersion, SpecVersion> getVersionFunction() {
         return versionFunction;
     }
@@ -128,8 +166,16 @@ public final class LoadSettings {
         return maxAliasesForCollections;
     }
 
+    public int getMaxNestingDepth() {
+        return maxNestingDepth;
+    }
+
     public Optional<EnvConfig> getEnvConfig() {
         return envConfig;
     }
+
+    public Optional<PathFilter> getPathFilter() {
+        return pathFilter;
+    }
 }
 
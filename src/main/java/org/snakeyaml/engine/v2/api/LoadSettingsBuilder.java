@@ -15,10 +15,12 @@
  */
 package org.snakeyaml.engine.v2.api;
 
+import org.snakeyaml.engine.v2.common.ScalarInternPolicy;
 import org.snakeyaml.engine.v2.common.SpecVersion;
 import org.snakeyaml.engine.v2.env.EnvConfig;
 import org.snakeyaml.engine.v2.exceptions.YamlVersionException;
 import org.snakeyaml.engine.v2.nodes.Tag;
+import org.snakeyaml.engine.v2.parser.PathFilter;
 import org.snakeyaml.engine.v2.resolver.JsonScalarResolver;
 import org.snakeyaml.engine.v2.resolver.ScalarResolver;
 
@@ -49,8 +51,15 @@ public final class LoadSettingsBuilder {
     private boolean allowDuplicateKeys;
     private boolean allowRecursiveKeys;
     private int maxAliasesForCollections;
+    private int maxNestingDepth;
     private boolean useMarks;
+    private boolean retainMarkData;
+    private boolean useScalarSlices;
+    private ScalarInternPolicy scalarInternPolicy;
+    private int scalarInternCapacity;
+    private boolean useStructuralIndex;
     private Optional<EnvConfig> envConfig;
+    private Optional<PathFilter> pathFilter;
 
 
     //general
@@ -74,8 +83,15 @@ public final class LoadSettingsBuilder {
         this.allowDuplicateKeys = false;
         this.allowRecursiveKeys = false;
         this.maxAliasesForCollections = 50; //to prevent YAML at https://en.wikipedia.org/wiki/Billion_laughs_attack
+        this.maxNestingDepth = 1000;
         this.useMarks = true;
+        this.retainMarkData = false;
+        this.useScalarSlices = false;
+        this.scalarInternPolicy = ScalarInternPolicy.NONE;
+        this.scalarInternCapacity = 0;
+        this.useStructuralIndex = false;
         this.envConfig = Optional.empty(); // no ENV substitution by default
+        this.pathFilter = Optional.empty();
 
     }
 
@@ -200,6 +216,18 @@ public final class LoadSettingsBuilder {
         return this;
     }
 
+    /**
+     * Restrict the depth of the nested collections. The nodes are composed and constructed recursively,
+     * so a deeper document fails with a ComposerException instead of the StackOverflowError.
+     *
+     * @param maxNestingDepth - max number of the collections which contain each other. Default is 1000
+     * @return the builder with the provided value
+     */
+    public LoadSettingsBuilder setMaxNestingDepth(int maxNestingDepth) {
+        this.maxNestingDepth = maxNestingDepth;
+        return this;
+    }
+
     /**
      * Marks are only used for error messages. But they requires a lot of memory. True by default.
      *
@@ -211,6 +239,71 @@ public final class LoadSettingsBuilder {
         return this;
     }
 
+    /**
+     * Keep the whole data for the marks. By default the marks share the data window of the reader,
+     * when the window is moved or replaced only the lines around the marks are copied for them.
+     * With true the windows are kept in memory as long as the marks are used (for instance by the nodes)
+     * and a new window is allocated for every refill after a mark. The snippets in the exceptions
+     * are the same. False by default.
+     *
+     * @param retainMarkData - use true to keep the whole data for the marks
+     * @return the builder with the provided value
+     */
+    public LoadSettingsBuilder setRetainMarkData(boolean retainMarkData) {
+        this.retainMarkData = retainMarkData;
+        return this;
+    }
+
+    /**
+     * The values of the scalars are not copied when the data is a CharSequence (String, char[], etc.)
+     * and the scalar is exactly the same as in the data (a single line without escaping).
+     * Such scalar events keep a view of the data, the String is created only when the value is requested.
+     * False by default.
+     *
+     * @param useScalarSlices - use true to parse the events faster when many values are not used.
+     *                        The events keep the whole data in memory, it must not be changed while the events are used
+     * @return the builder with the provided value
+     */
+    public LoadSettingsBuilder setUseScalarSlices(boolean useScalarSlices) {
+        this.useScalarSlices = useScalarSlices;
+        return this;
+    }
+
+    /**
+     * Share the String instances of the repeated scalars (for instance the keys of many similar records).
+     * The scalars are looked up in a table by the code points in the reader, the String is not created
+     * when the scalar is found. Every reader has its own table of the given size, a new scalar replaces
+     * the least recently used one with the same position in the table. Not used by default.
+     *
+     * @param scalarInternPolicy - which scalars to share
+     * @param capacity           - the maximum number of the scalars in the table
+     * @return the builder with the provided value
+     */
+    public LoadSettingsBuilder setScalarInternPolicy(ScalarInternPolicy scalarInternPolicy, int capacity) {
+        Objects.requireNonNull(scalarInternPolicy, "scalarInternPolicy cannot be null");
+        if (capacity <= 0 && scalarInternPolicy != ScalarInternPolicy.NONE) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        this.scalarInternPolicy = scalarInternPolicy;
+        this.scalarInternCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Parse the data which is a single flow collection in the JSON-compatible subset of YAML (double-quoted
+     * and single line plain scalars without comments, tags and anchors) with a structural index instead of
+     * the scanner. The index is built in one pass over the data, any other data is parsed as usual.
+     * It is used when the data is a CharSequence (String, char[], etc.), the intern policy is not applied.
+     * False by default.
+     *
+     * @param useStructuralIndex - use true when most of the data is JSON
+     * @return the builder with the provided value
+     */
+    public LoadSettingsBuilder setUseStructuralIndex(boolean useStructuralIndex) {
+        this.useStructuralIndex = useStructuralIndex;
+        return this;
+    }
+
     /**
      * Manage YAML directive value which defines the version of the YAML specification.
      * This parser supports YAML 1.2 but it can parse most of YAML 1.1 and YAML 1.0
@@ -241,6 +334,21 @@ public final class LoadSettingsBuilder {
         return this;
     }
 
+    /**
+     * Compose and construct only the nodes under the given paths. The other nodes are skipped
+     * without creating their events, it helps to load a small part of a large document.
+     * If not set explicitly all the nodes are loaded.
+     *
+     * @param pathFilter - the paths of the nodes to load
+     * @return the builder with the provided value
+     * @see org.snakeyaml.engine.v2.parser.PathFilterParser
+     */
+    public LoadSettingsBuilder setPathFilter(Optional<PathFilter> pathFilter) {
+        Objects.requireNonNull(pathFilter, "pathFilter cannot be null");
+        this.pathFilter = pathFilter;
+        return this;
+    }
+
     public LoadSettingsBuilder setCustomProperty(SettingKey key, Object value) {
         customProperties.put(key, value);
         return this;
@@ -256,8 +364,9 @@ public final class LoadSettingsBuilder {
                 scalarResolver, defaultList,
                 defaultSet, defaultMap,
                 versionFunction, bufferSize,
-                allowDuplicateKeys, allowRecursiveKeys, maxAliasesForCollections, useMarks,
-                customProperties, envConfig);
+                allowDuplicateKeys, allowRecursiveKeys, maxAliasesForCollections, maxNestingDepth, useMarks, retainMarkData,
+                useScalarSlices, scalarInternPolicy, scalarInternCapacity, useStructuralIndex, customProperties, envConfig,
+                pathFilter);
     }
 }
 
@@ -16,15 +16,20 @@
 package org.snakeyaml.engine.v2.api.lowlevel;
 
 import org.snakeyaml.engine.v2.api.LoadSettings;
-import org.snakeyaml.engine.v2.api.YamlUnicodeReader;
 import org.snakeyaml.engine.v2.composer.Composer;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
 import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.parser.FlowIndexParser;
 import org.snakeyaml.engine.v2.parser.ParserImpl;
 import org.snakeyaml.engine.v2.scanner.StreamReader;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Optional;
@@ -65,10 +70,41 @@ public class Compose {
      */
     public Optional<Node> composeInputStream(InputStream yaml) {
         Objects.requireNonNull(yaml, "InputStream cannot be null");
-        return new Composer(new ParserImpl(new StreamReader(new YamlUnicodeReader(yaml), settings), settings),
+        return new Composer(new ParserImpl(new StreamReader(yaml, settings), settings),
                 settings).getSingleNode();
     }
 
+    /**
+     * Parse a YAML file and produce {@link Node}. The file is memory-mapped and read from the current position
+     * of the channel.
+     *
+     * @param yaml - YAML document(s). Default encoding is UTF-8. The BOM must be present if the encoding is UTF-16 or UTF-32
+     * @return parsed {@link Node} if available
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Optional<Node> composeChannel(FileChannel yaml) {
+        Objects.requireNonNull(yaml, "FileChannel cannot be null");
+        return new Composer(new ParserImpl(new StreamReader(yaml, settings), settings),
+                settings).getSingleNode();
+    }
+
+    /**
+     * Parse a YAML file and produce {@link Node}. The file is memory-mapped.
+     *
+     * @param yaml - YAML file. Default encoding is UTF-8. The BOM must be present if the encoding is UTF-16 or UTF-32
+     * @return parsed {@link Node} if available
+     * @throws YamlEngineException if the file cannot be opened
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Optional<Node> composePath(Path yaml) {
+        Objects.requireNonNull(yaml, "Path cannot be null");
+        try (FileChannel channel = FileChannel.open(yaml, StandardOpenOption.READ)) {
+            return composeChannel(channel);
+        } catch (IOException e) {
+            throw new YamlEngineException(e);
+        }
+    }
+
     /**
      * Parse a YAML stream and produce {@link Node}
      *
@@ -78,7 +114,37 @@ public class Compose {
      */
     public Optional<Node> composeString(String yaml) {
         Objects.requireNonNull(yaml, "String cannot be null");
-        return new Composer(new ParserImpl(new StreamReader(new StringReader(yaml), settings), settings),
+        return new Composer(FlowIndexParser.create(yaml, settings),
+                settings).getSingleNode();
+    }
+
+    /**
+     * Parse a YAML stream and produce {@link Node}. The characters are read directly,
+     * they must not be changed until the Node is composed.
+     *
+     * @param yaml - YAML document(s). The BOM must not be present (it will be parsed as content)
+     * @return parsed {@link Node} if available
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Optional<Node> composeCharSequence(CharSequence yaml) {
+        Objects.requireNonNull(yaml, "CharSequence cannot be null");
+        return new Composer(FlowIndexParser.create(yaml, settings),
+                settings).getSingleNode();
+    }
+
+    /**
+     * Parse a part of the array and produce {@link Node}. The characters are read directly,
+     * they must not be changed until the Node is composed.
+     *
+     * @param yaml   - YAML document(s). The BOM must not be present (it will be parsed as content)
+     * @param offset - the index of the first char to parse
+     * @param length - the number of chars to parse
+     * @return parsed {@link Node} if available
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Optional<Node> composeCharArray(char[] yaml, int offset, int length) {
+        Objects.requireNonNull(yaml, "char[] cannot be null");
+        return new Composer(FlowIndexParser.create(CharBuffer.wrap(yaml, offset, length), settings),
                 settings).getSingleNode();
     }
 
@@ -105,7 +171,34 @@ public class Compose {
      */
     public Iterable<Node> composeAllFromInputStream(InputStream yaml) {
         Objects.requireNonNull(yaml, "InputStream cannot be null");
-        return () -> new Composer(new ParserImpl(new StreamReader(new YamlUnicodeReader(yaml), settings), settings), settings);
+        return () -> new Composer(new ParserImpl(new StreamReader(yaml, settings), settings), settings);
+    }
+
+    /**
+     * Parse all YAML documents in a file and produce corresponding representation trees.
+     * The file is memory-mapped and read from the current position of the channel.
+     *
+     * @param yaml - YAML document(s). Default encoding is UTF-8. The BOM must be present if the encoding is UTF-16 or UTF-32.
+     *             The channel must stay open until all the documents are composed
+     * @return parsed root Nodes for all the specified YAML documents
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Iterable<Node> composeAllFromChannel(FileChannel yaml) {
+        Objects.requireNonNull(yaml, "FileChannel cannot be null");
+        return () -> new Composer(new ParserImpl(new StreamReader(yaml, settings), settings), settings);
+    }
+
+    /**
+     * Parse all YAML documents in a stream and produce corresponding representation trees.
+     * The characters are read directly, they must not be changed until all the documents are composed.
+     *
+     * @param yaml - YAML document(s). The BOM must not be present (it will be parsed as content)
+     * @return parsed root Nodes for all the specified YAML documents
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Iterable<Node> composeAllFromCharSequence(CharSequence yaml) {
+        Objects.requireNonNull(yaml, "CharSequence cannot be null");
+        return () -> new Composer(FlowIndexParser.create(yaml, settings), settings);
     }
 
     /**
@@ -120,8 +213,7 @@ public class Compose {
         //do not use lambda to keep Iterable and Iterator visible
         return new Iterable() {
             public Iterator<Node> iterator() {
-                return new Composer(new ParserImpl(
-                        new StreamReader(new StringReader(yaml), settings), settings), settings);
+                return new Composer(FlowIndexParser.create(yaml, settings), settings);
             }
         };
     }
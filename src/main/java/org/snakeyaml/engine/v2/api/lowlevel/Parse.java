@@ -16,14 +16,16 @@
 package org.snakeyaml.engine.v2.api.lowlevel;
 
 import org.snakeyaml.engine.v2.api.LoadSettings;
-import org.snakeyaml.engine.v2.api.YamlUnicodeReader;
 import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.parser.FlowIndexParser;
 import org.snakeyaml.engine.v2.parser.ParserImpl;
+import org.snakeyaml.engine.v2.parser.YamlCursor;
 import org.snakeyaml.engine.v2.scanner.StreamReader;
 
 import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Iterator;
 import java.util.Objects;
 
@@ -53,7 +55,21 @@ public class Parse {
      */
     public Iterable<Event> parseInputStream(InputStream yaml) {
         Objects.requireNonNull(yaml, "InputStream cannot be null");
-        return () -> new ParserImpl(new StreamReader(new YamlUnicodeReader(yaml), settings), settings);
+        return () -> new ParserImpl(new StreamReader(yaml, settings), settings);
+    }
+
+    /**
+     * Parse a YAML file and produce parsing events. The file is memory-mapped and read from the current position
+     * of the channel.
+     *
+     * @param yaml - YAML document(s). Default encoding is UTF-8. The BOM must be present if the encoding is UTF-16 or UTF-32.
+     *             The channel must stay open until all the events are parsed
+     * @return parsed events
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Iterable<Event> parseChannel(FileChannel yaml) {
+        Objects.requireNonNull(yaml, "FileChannel cannot be null");
+        return () -> new ParserImpl(new StreamReader(yaml, settings), settings);
     }
 
     /**
@@ -69,6 +85,34 @@ public class Parse {
         return () -> new ParserImpl(new StreamReader(yaml, settings), settings);
     }
 
+    /**
+     * Parse a YAML stream and produce parsing events. The characters are read directly,
+     * they must not be changed until all the events are parsed.
+     *
+     * @param yaml - YAML document(s). The BOM must not be present (it will be parsed as content)
+     * @return parsed events
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Iterable<Event> parseCharSequence(CharSequence yaml) {
+        Objects.requireNonNull(yaml, "CharSequence cannot be null");
+        return () -> FlowIndexParser.create(yaml, settings);
+    }
+
+    /**
+     * Parse a part of the array and produce parsing events. The characters are read directly,
+     * they must not be changed until all the events are parsed.
+     *
+     * @param yaml   - YAML document(s). The BOM must not be present (it will be parsed as content)
+     * @param offset - the index of the first char to parse
+     * @param length - the number of chars to parse
+     * @return parsed events
+     * @see <a href="http://www.yaml.org/spec/1.2/spec.html#id2762107">Processing Overview</a>
+     */
+    public Iterable<Event> parseCharArray(char[] yaml, int offset, int length) {
+        Objects.requireNonNull(yaml, "char[] cannot be null");
+        return () -> FlowIndexParser.create(CharBuffer.wrap(yaml, offset, length), settings);
+    }
+
     /**
      * Parse a YAML stream and produce parsing events.
      *
@@ -81,9 +125,44 @@ public class Parse {
         //do not use lambda to keep Iterable and Iterator visible
         return new Iterable() {
             public Iterator<Event> iterator() {
-                return new ParserImpl(new StreamReader(new StringReader(yaml), settings), settings);
+                return FlowIndexParser.create(yaml, settings);
             }
         };
     }
-}
 
+    /**
+     * Create a cursor over a YAML stream. The cursor does not create the events,
+     * it provides the data of the current event.
+     *
+     * @param yaml - YAML document(s). Default encoding is UTF-8. The BOM must be present if the encoding is UTF-16 or UTF-32
+     * @return the cursor before the first event
+     */
+    public YamlCursor cursorInputStream(InputStream yaml) {
+        Objects.requireNonNull(yaml, "InputStream cannot be null");
+        return new YamlCursor(new StreamReader(yaml, settings), settings);
+    }
+
+    /**
+     * Create a cursor over a YAML stream. The cursor does not create the events,
+     * it provides the data of the current event.
+     *
+     * @param yaml - YAML document(s). The BOM must not be present (it will be parsed as content)
+     * @return the cursor before the first event
+     */
+    public YamlCursor cursorReader(Reader yaml) {
+        Objects.requireNonNull(yaml, "Reader cannot be null");
+        return new YamlCursor(new StreamReader(yaml, settings), settings);
+    }
+
+    /**
+     * Create a cursor over a YAML stream. The cursor does not create the events,
+     * it provides the data of the current event.
+     *
+     * @param yaml - YAML document(s). The BOM must not be present (it will be parsed as content)
+     * @return the cursor before the first event
+     */
+    public YamlCursor cursorString(String yaml) {
+        Objects.requireNonNull(yaml, "String cannot be null");
+        return new YamlCursor(new StreamReader(yaml, settings), settings);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.common;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Queue on top of a circular array. Removing the head does not move the other elements
+ * (unlike ArrayList.remove(0)). The elements are also accessible by the index from the head.
+ */
+public class ArrayQueue<T> {
+    private Object[] elements;
+    private int head;
+    private int size;
+
+    /**
+     * Create empty queue
+     *
+     * @param initSize - the initial capacity of the queue
+     */
+    public ArrayQueue(int initSize) {
+        int capacity = 1;
+        while (capacity < initSize) {
+            capacity <<= 1;
+        }
+        elements = new Object[capacity];
+    }
+
+    /**
+     * Add the element to the tail
+     *
+     * @param obj - the element to add
+     */
+    public void add(T obj) {
+        ensureCapacity();
+        elements[(head + size) & (elements.length - 1)] = obj;
+        size++;
+    }
+
+    /**
+     * Insert the element. The elements after it are moved, which is cheap when the index is close to the tail.
+     *
+     * @param index - the position counting from the head
+     * @param obj   - the element to insert
+     */
+    public void add(int index, T obj) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity();
+        final int mask = elements.length - 1;
+        for (int i = size; i > index; i--) {
+            elements[(head + i) & mask] = elements[(head + i - 1) & mask];
+        }
+        elements[(head + index) & mask] = obj;
+        size++;
+    }
+
+    /**
+     * @param index - the position counting from the head
+     * @return the element at the position
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) elements[(head + index) & (elements.length - 1)];
+    }
+
+    /**
+     * @return the element from the head
+     * @throws NoSuchElementException if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        T obj = (T) elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return obj;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == elements.length) {
+            Object[] larger = new Object[elements.length << 1];
+            int firstPart = elements.length - head;
+            System.arraycopy(elements, head, larger, 0, firstPart);
+            System.arraycopy(elements, 0, larger, firstPart, head);
+            elements = larger;
+            head = 0;
+        }
+    }
+}
@@ -43,4 +43,11 @@ public class ArrayStack<T> {
     public boolean isEmpty() {
         return stack.isEmpty();
     }
+
+    /**
+     * @return the number of the elements in the stack
+     */
+    public int size() {
+        return stack.size();
+    }
 }
\ No newline at end of file
@@ -96,6 +96,13 @@ public final class CharConstants {
      */
     public static final Map<Character, Integer> ESCAPE_CODES;
 
+    /**
+     * The same as ESCAPE_REPLACEMENTS and ESCAPE_CODES by the ASCII escape character (-1 if it is not
+     * a single character escape, 0 if it is not a code point escape) to avoid the lookups of the boxed values
+     */
+    private static final int[] ESCAPE_REPLACEMENT_TABLE = new int[ASCII_SIZE];
+    private static final int[] ESCAPE_CODE_LENGTHS = new int[ASCII_SIZE];
+
     static {
         Map<Integer, Character> escapeReplacements = new HashMap();
         Map<Character, Integer> escapes = new HashMap();
@@ -128,5 +135,40 @@ public final class CharConstants {
         escapeCodes.put(Character.valueOf('u'), 4);// 16-bit Unicode
         escapeCodes.put(Character.valueOf('U'), 8);// 32-bit Unicode (Supplementary characters are supported)
         ESCAPE_CODES = Collections.unmodifiableMap(escapeCodes);
+
+        Arrays.fill(ESCAPE_REPLACEMENT_TABLE, -1);
+        ESCAPE_REPLACEMENTS.forEach((code, replacement) -> ESCAPE_REPLACEMENT_TABLE[code] = replacement);
+        ESCAPE_CODES.forEach((code, length) -> ESCAPE_CODE_LENGTHS[code] = length);
+    }
+
+    /**
+     * @param c - the code point after the backslash
+     * @return the replacement of the single character escape sequence or -1 (see ESCAPE_REPLACEMENTS)
+     */
+    public static int escapeReplacement(int c) {
+        return c >= 0 && c < ASCII_SIZE ? ESCAPE_REPLACEMENT_TABLE[c] : -1;
+    }
+
+    /**
+     * @param c - the code point after the backslash
+     * @return the number of the hexadecimal digits of the code point escape sequence or 0 (see ESCAPE_CODES)
+     */
+    public static int escapeCodeLength(int c) {
+        return c >= 0 && c < ASCII_SIZE ? ESCAPE_CODE_LENGTHS[c] : 0;
+    }
+
+    /**
+     * @param c - the code point
+     * @return the value of the hexadecimal digit (0-9, A-F, a-f) or -1
+     */
+    public static int hexDigit(int c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
     }
 }
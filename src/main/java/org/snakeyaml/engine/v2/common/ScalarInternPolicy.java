@@ -13,17 +13,26 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.snakeyaml.engine.v2.parser;
-
-
-import org.snakeyaml.engine.v2.events.Event;
+package org.snakeyaml.engine.v2.common;
 
 /**
- * Helper for {@link ParserImpl}. A grammar rule to apply given the symbols on
- * top of its stack and the next input token
- *
- * @see <a href="http://en.wikipedia.org/wiki/LL_parser"></a>
+ * Configure which scalars share the same String instance when they are repeated in the stream
  */
-interface Production {
-    Event produce();
+public enum ScalarInternPolicy {
+    /**
+     * Every scalar creates a new String
+     */
+    NONE,
+
+    /**
+     * Share the simple keys (a plain or a quoted scalar on a single line without escaping,
+     * which is followed by ':')
+     */
+    KEYS_ONLY,
+
+    /**
+     * Share the simple keys and the other plain and quoted scalars (a single line without escaping)
+     * up to 32 code points
+     */
+    SHORT_SCALARS
 }
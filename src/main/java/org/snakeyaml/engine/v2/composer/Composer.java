@@ -34,6 +34,7 @@ import org.snakeyaml.engine.v2.nodes.ScalarNode;
 import org.snakeyaml.engine.v2.nodes.SequenceNode;
 import org.snakeyaml.engine.v2.nodes.Tag;
 import org.snakeyaml.engine.v2.parser.Parser;
+import org.snakeyaml.engine.v2.parser.PathFilterParser;
 import org.snakeyaml.engine.v2.resolver.ScalarResolver;
 
 import java.util.ArrayList;
@@ -59,10 +60,16 @@ public class Composer implements Iterator<Node> {
     private final Map<Anchor, Node> anchors;
     private final Set<Node> recursiveNodes;
     private int nonScalarAliasesCount = 0;
+    // the number of the collections which are being composed
+    private int depth = 0;
     private final LoadSettings settings;
 
     public Composer(Parser parser, LoadSettings settings) {
-        this.parser = parser;
+        if (settings.getPathFilter().isPresent() && !(parser instanceof PathFilterParser)) {
+            this.parser = new PathFilterParser(parser, settings.getPathFilter().get());
+        } else {
+            this.parser = parser;
+        }
         this.scalarResolver = settings.getScalarResolver();
         this.settings = settings;
         this.anchors = new HashMap();
@@ -122,7 +129,7 @@ public class Composer implements Iterator<Node> {
         // Drop the DOCUMENT-START event.
         parser.next();
         // Compose the root node.
-        Node node = composeNode(Optional.empty());
+        Node node = composeNode(null);
         // Drop the DOCUMENT-END event.
         parser.next();
         this.anchors.clear();
@@ -132,8 +139,14 @@ public class Composer implements Iterator<Node> {
     }
 
 
-    private Node composeNode(Optional<Node> parent) {
-        parent.ifPresent(recursiveNodes::add);//TODO add unit test for this line
+    /**
+     * @param parent - the collection which contains the node (null for the root node), neither an Optional
+     *               nor a lambda is created for every node
+     */
+    private Node composeNode(Node parent) {
+        if (parent != null) {
+            recursiveNodes.add(parent);//TODO add unit test for this line
+        }
         final Node node;
         if (parser.checkEvent(Event.ID.Alias)) {
             AliasEvent event = (AliasEvent) parser.next();
@@ -157,13 +170,22 @@ public class Composer implements Iterator<Node> {
             // the check for duplicate anchors has been removed (issue 174)
             if (parser.checkEvent(Event.ID.Scalar)) {
                 node = composeScalarNode(anchor);
-            } else if (parser.checkEvent(Event.ID.SequenceStart)) {
-                node = composeSequenceNode(anchor);
             } else {
-                node = composeMappingNode(anchor);
+                if (++depth > settings.getMaxNestingDepth()) {
+                    throw new ComposerException("Nesting depth of the collections exceeds the specified max="
+                            + settings.getMaxNestingDepth(), event.getStartMark());
+                }
+                if (parser.checkEvent(Event.ID.SequenceStart)) {
+                    node = composeSequenceNode(anchor);
+                } else {
+                    node = composeMappingNode(anchor);
+                }
+                depth--;
             }
         }
-        parent.ifPresent(recursiveNodes::remove);//TODO add unit test for this line
+        if (parent != null) {
+            recursiveNodes.remove(parent);//TODO add unit test for this line
+        }
         return node;
     }
 
@@ -181,10 +203,12 @@ public class Composer implements Iterator<Node> {
             nodeTag = scalarResolver.resolve(ev.getValue(), ev.getImplicit().canOmitTagInPlainScalar());
             resolved = true;
         } else {
-            nodeTag = new Tag(tag.get());
+            nodeTag = Tag.intern(tag.get());
         }
         Node node = new ScalarNode(nodeTag, resolved, ev.getValue(), ev.getScalarStyle(), ev.getStartMark(), ev.getEndMark());
-        anchor.ifPresent(a -> registerAnchor(a, node));
+        if (anchor.isPresent()) {
+            registerAnchor(anchor.get(), node);
+        }
         return node;
     }
 
@@ -197,14 +221,16 @@ public class Composer implements Iterator<Node> {
             nodeTag = Tag.SEQ;
             resolved = true;
         } else {
-            nodeTag = new Tag(tag.get());
+            nodeTag = Tag.intern(tag.get());
         }
         final ArrayList<Node> children = new ArrayList();
         SequenceNode node = new SequenceNode(nodeTag, resolved, children, startEvent.getFlowStyle(), startEvent.getStartMark(),
                 Optional.empty());
-        anchor.ifPresent(a -> registerAnchor(a, node));
+        if (anchor.isPresent()) {
+            registerAnchor(anchor.get(), node);
+        }
         while (!parser.checkEvent(Event.ID.SequenceEnd)) {
-            children.add(composeNode(Optional.of(node)));
+            children.add(composeNode(node));
         }
         Event endEvent = parser.next();
         node.setEndMark(endEvent.getEndMark());
@@ -220,12 +246,14 @@ public class Composer implements Iterator<Node> {
             nodeTag = Tag.MAP;
             resolved = true;
         } else {
-            nodeTag = new Tag(tag.get());
+            nodeTag = Tag.intern(tag.get());
         }
 
         final List<NodeTuple> children = new ArrayList<>();
         MappingNode node = new MappingNode(nodeTag, resolved, children, startEvent.getFlowStyle(), startEvent.getStartMark(), Optional.empty());
-        anchor.ifPresent(a -> registerAnchor(a, node));
+        if (anchor.isPresent()) {
+            registerAnchor(anchor.get(), node);
+        }
         while (!parser.checkEvent(Event.ID.MappingEnd)) {
             composeMappingChildren(children, node);
         }
@@ -241,10 +269,19 @@ public class Composer implements Iterator<Node> {
     }
 
     protected Node composeKeyNode(MappingNode node) {
-        return composeNode(Optional.of(node));
+        return composeNode(node);
     }
 
     protected Node composeValueNode(MappingNode node) {
-        return composeNode(Optional.of(node));
+        return composeNode(node);
+    }
+
+    /**
+     * Skip the next node without creating it (for instance the value of a key which is not interesting
+     * in composeMappingChildren()). The anchors in the skipped node are not registered, the aliases
+     * which refer to them fail.
+     */
+    protected void skipNode() {
+        parser.skipCurrentNode();
     }
 }
@@ -155,15 +155,12 @@ public abstract class BaseConstructor {
      */
     protected Optional<ConstructNode> findConstructorFor(Node node) {
         Tag tag = node.getTag();
-        if (settings.getTagConstructors().containsKey(tag)) {
-            return Optional.of(settings.getTagConstructors().get(tag));
-        } else {
-            if (tagConstructors.containsKey(tag)) {
-                return Optional.of(tagConstructors.get(tag));
-            } else {
-                return Optional.empty();
-            }
+        // a single lookup in every map, the constructors are never null
+        ConstructNode constructor = settings.getTagConstructors().get(tag);
+        if (constructor == null) {
+            constructor = tagConstructors.get(tag);
         }
+        return Optional.ofNullable(constructor);
     }
 
 
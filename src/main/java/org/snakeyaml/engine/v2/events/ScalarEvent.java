@@ -39,7 +39,9 @@ public final class ScalarEvent extends NodeEvent {
     // style flag of a scalar event indicates the style of the scalar. Possible
     // values are None, '', '\'', '"', '|', '>'
     private final ScalarStyle style;
-    private final String value;
+    private final CharSequence value;
+    // the value is converted to String only when it is requested
+    private String stringValue;
     // The implicit flag of a scalar event is a pair of boolean values that
     // indicate if the tag may be omitted when the scalar is emitted in a plain
     // and non-plain style correspondingly.
@@ -47,6 +49,22 @@ public final class ScalarEvent extends NodeEvent {
 
     public ScalarEvent(Optional<Anchor> anchor, Optional<String> tag, ImplicitTuple implicit, String value, ScalarStyle style,
                        Optional<Mark> startMark, Optional<Mark> endMark) {
+        this(anchor, tag, implicit, (CharSequence) value, style, startMark, endMark);
+    }
+
+    /**
+     * Create the event without creating the String for the value
+     *
+     * @param anchor    - the anchor of the scalar
+     * @param tag       - the explicit tag
+     * @param implicit  - when the tag may be omitted
+     * @param value     - the value (it may be a view of the data which is being read)
+     * @param style     - the style of the scalar
+     * @param startMark - the beginning of the scalar
+     * @param endMark   - the end of the scalar
+     */
+    public ScalarEvent(Optional<Anchor> anchor, Optional<String> tag, ImplicitTuple implicit, CharSequence value, ScalarStyle style,
+                       Optional<Mark> startMark, Optional<Mark> endMark) {
         super(anchor, startMark, endMark);
         Objects.requireNonNull(tag, "Tag must be provided.");
         this.tag = tag;
@@ -101,6 +119,20 @@ public final class ScalarEvent extends NodeEvent {
      * @return Value as Unicode string.
      */
     public String getValue() {
+        if (stringValue == null) {
+            stringValue = value.toString();
+        }
+        return stringValue;
+    }
+
+    /**
+     * The value without creating the String. It is a view of the data which is being read
+     * when {@link org.snakeyaml.engine.v2.api.LoadSettingsBuilder#setUseScalarSlices(boolean)} is enabled.
+     * Compare it with {@link String#contentEquals(CharSequence)} to avoid creating the String.
+     *
+     * @return the value without quotes and escaping
+     */
+    public CharSequence getCharSequence() {
         return this.value;
     }
 
@@ -146,7 +178,7 @@ public final class ScalarEvent extends NodeEvent {
 
     //escape and drop surrogates
     public String escapedValue() {
-        return value.codePoints().filter(i -> i < Character.MAX_VALUE).mapToObj(c -> (char) c)
+        return getValue().codePoints().filter(i -> i < Character.MAX_VALUE).mapToObj(c -> (char) c)
                 .map(this::escape).collect(Collectors.joining(""));
     }
 }
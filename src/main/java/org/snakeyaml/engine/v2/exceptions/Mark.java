@@ -28,7 +28,16 @@ public final class Mark implements Serializable {
     private int index;
     private int line;
     private int column;
-    private int[] buffer;
+    /**
+     * The data as it was given (code points, Latin-1 or UTF-16). It is converted to code points only when
+     * the snippet is created
+     */
+    private Object data;
+    /**
+     * The data which is not kept by this mark (the whole data of the owner or the part around the mark
+     * when the owner has released it)
+     */
+    private transient MarkDataSource dataSource;
     private int pointer;
 
     private static int[] toCodePoints(char[] str) {
@@ -44,6 +53,25 @@ public final class Mark implements Serializable {
         return codePoints;
     }
 
+    private static int[] toCodePoints(byte[] latin1) {
+        int[] codePoints = new int[latin1.length];
+        for (int i = 0; i < latin1.length; i++) {
+            codePoints[i] = latin1[i] & 0xFF;
+        }
+        return codePoints;
+    }
+
+    private static int[] toCodePoints(Object data) {
+        if (data instanceof byte[]) {
+            return toCodePoints((byte[]) data);
+        } else if (data instanceof char[]) {
+            return toCodePoints((char[]) data);
+        } else if (data instanceof CharSequence) {
+            return ((CharSequence) data).codePoints().toArray();
+        }
+        return (int[]) data;
+    }
+
     /**
      * Creates {@link Mark}
      *
@@ -60,29 +88,105 @@ public final class Mark implements Serializable {
         this.index = index;
         this.line = line;
         this.column = column;
-        this.buffer = buffer;
+        this.data = buffer;
         this.pointer = pointer;
     }
 
     /**
-     * This constructor is only for test
+     * Creates {@link Mark} for the data in UTF-16
      *
      * @param name    - the name to be used as identifier
      * @param index   - the index from the beginning of the stream
      * @param line    - line of the mark from beginning of the stream
      * @param column  - column of the mark from beginning of the line
-     * @param str     - the data
+     * @param str     - the data (UTF-16)
      * @param pointer - the position of the mark from the beginning of the stream
      */
     public Mark(String name, int index, int line, int column, char[] str, int pointer) {
-        this(name, index, line, column, toCodePoints(str), pointer);
+        this(name, index, line, column, (int[]) null, pointer);
+        this.data = str;
+    }
+
+    /**
+     * Creates {@link Mark} for the data where every code point is kept in one byte
+     *
+     * @param name    - the name to be used as identifier
+     * @param index   - the index from the beginning of the stream
+     * @param line    - line of the mark from beginning of the stream
+     * @param column  - column of the mark from beginning of the line
+     * @param buffer  - the data (ISO-8859-1)
+     * @param pointer - the position of the mark from the beginning of the stream
+     */
+    public Mark(String name, int index, int line, int column, byte[] buffer, int pointer) {
+        this(name, index, line, column, (int[]) null, pointer);
+        this.data = buffer;
+    }
+
+    /**
+     * Creates {@link Mark} which does not keep the data in memory (see {@link MarkDataSource#createMark})
+     */
+    Mark(String name, int index, int line, int column, MarkDataSource dataSource, int pointer) {
+        this(name, index, line, column, (int[]) null, pointer);
+        this.dataSource = dataSource;
+    }
+
+    private MarkDataSource.Excerpt getData() {
+        if (data == null && dataSource != null) {
+            return dataSource.get(pointer);
+        }
+        return data == null ? null : new MarkDataSource.Excerpt(0, data);
+    }
+
+    /**
+     * Keep a copy of the data to be able to create the snippet later (when the mark is used in an exception).
+     * The owner may change or release its data afterwards.
+     */
+    void keepData() {
+        if (data == null && dataSource != null) {
+            MarkDataSource.Excerpt excerpt = dataSource.get(pointer);
+            if (excerpt != null) {
+                Object source = excerpt.data;
+                if (source instanceof byte[]) {
+                    data = ((byte[]) source).clone();
+                } else if (source instanceof char[]) {
+                    data = ((char[]) source).clone();
+                } else if (source instanceof int[]) {
+                    data = ((int[]) source).clone();
+                } else {
+                    data = source.toString().toCharArray();
+                }
+                // the data may be only the part around the mark
+                pointer -= excerpt.start;
+            }
+            dataSource = null;
+        }
+    }
+
+    /**
+     * @return false if the data is not available and the snippet cannot be created
+     */
+    public boolean hasSnippet() {
+        return getData() != null;
     }
 
     private boolean isLineBreak(int c) {
         return CharConstants.NULL_OR_LINEBR.has(c);
     }
 
+    /**
+     * Create the snippet to show the mark in the data
+     *
+     * @param indent    - the indentation of the snippet
+     * @param maxLength - the maximum length of the line
+     * @return the snippet or the empty String when the data is not available anymore
+     */
     public String createSnippet(int indent, int maxLength) {
+        final MarkDataSource.Excerpt source = getData();
+        if (source == null) {
+            return "";
+        }
+        final int[] buffer = toCodePoints(source.data);
+        final int pointer = this.pointer - source.start;
         float half = maxLength / 2f - 1f;
         int start = pointer;
         String head = "";
@@ -128,15 +232,17 @@ public final class Mark implements Serializable {
 
     @Override
     public String toString() {
-        String snippet = createSnippet();
         StringBuilder builder = new StringBuilder(" in ");
         builder.append(name);
         builder.append(", line ");
         builder.append(line + 1);
         builder.append(", column ");
         builder.append(column + 1);
-        builder.append(":\n");
-        builder.append(snippet);
+        String snippet = createSnippet();
+        if (!snippet.isEmpty()) {
+            builder.append(":\n");
+            builder.append(snippet);
+        }
         return builder.toString();
     }
 
@@ -171,11 +277,25 @@ public final class Mark implements Serializable {
         return index;
     }
 
+    /**
+     * The data as code points. When the data was given as bytes or chars it is converted with every call.
+     * When the reader has released its data, only the part of the line around the mark is kept.
+     *
+     * @return the data or an empty array when the data is not available
+     */
     public int[] getBuffer() {
-        return buffer;
+        MarkDataSource.Excerpt source = getData();
+        if (source == null) {
+            return new int[0];
+        }
+        return toCodePoints(source.data);
     }
 
+    /**
+     * @return the position of the mark in {@link #getBuffer()}
+     */
     public int getPointer() {
-        return pointer;
+        MarkDataSource.Excerpt source = getData();
+        return source == null ? pointer : pointer - source.start;
     }
 }
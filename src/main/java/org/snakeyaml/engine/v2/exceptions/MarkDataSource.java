@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.exceptions;
+
+import org.snakeyaml.engine.v2.common.CharConstants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The data for the snippets of the marks which do not keep the data themselves. The marks share
+ * the data of their owner (the reader window or the input) as long as the owner keeps it.
+ * When the owner releases the data (to move or to replace it) only the part of the lines around
+ * the marks is copied, so the snippets stay the same but the marks do not keep the whole data in memory.
+ */
+public final class MarkDataSource {
+    /**
+     * The amount of the code points which are kept on both sides of a mark on its line
+     * (the default snippet shows less than a half of it)
+     */
+    private static final int SNIPPET_CONTEXT = 128;
+
+    /**
+     * The data of the owner: int[] (code points), char[] (UTF-16), byte[] (ISO-8859-1) or
+     * CharSequence (null when it is released)
+     */
+    private volatile Object data;
+    /**
+     * The parts of the data around the marks (when the data is released), in the order of the data
+     */
+    private volatile Excerpt[] excerpts;
+    /**
+     * The first and the last position of every group of the marks which are close to each other
+     * (null when the data is never released)
+     */
+    private int[] groups;
+    private int count;
+
+    /**
+     * Create the source for the marks
+     *
+     * @param data     - int[] (code points), char[] (UTF-16), byte[] (ISO-8859-1) or CharSequence
+     * @param retained - true when the data is never released (the positions of the marks are not recorded)
+     */
+    public MarkDataSource(Object data, boolean retained) {
+        this.data = data;
+        if (!retained) {
+            this.groups = new int[8];
+        }
+    }
+
+    /**
+     * Create the mark which shows the data of this source. The marks must be created in the order of the data.
+     *
+     * @param name    - the name to be used as identifier
+     * @param index   - the index from the beginning of the stream
+     * @param line    - line of the mark from beginning of the stream
+     * @param column  - column of the mark from beginning of the line
+     * @param pointer - the position of the mark in the data (in code points)
+     * @return the mark
+     */
+    public Mark createMark(String name, int index, int line, int column, int pointer) {
+        if (groups != null) {
+            if (count > 0 && pointer - groups[count - 1] <= SNIPPET_CONTEXT) {
+                groups[count - 1] = Math.max(groups[count - 1], pointer);
+            } else {
+                if (count == groups.length) {
+                    groups = Arrays.copyOf(groups, count * 2);
+                }
+                groups[count++] = pointer;
+                groups[count++] = pointer;
+            }
+        }
+        return new Mark(name, index, line, column, this, pointer);
+    }
+
+    /**
+     * Replace the data with the same data in another array (the positions of the code points are the same)
+     *
+     * @param data - the data to show
+     */
+    public void setData(Object data) {
+        this.data = data;
+    }
+
+    /**
+     * Copy the parts of the lines around the marks created so far and release the data.
+     * The owner may change the data afterwards.
+     */
+    public void release() {
+        final Object source = data;
+        if (source == null || groups == null) {
+            return;
+        }
+        excerpts = createExcerpts(source);
+        data = null;
+        groups = null;
+    }
+
+    /**
+     * Get the data around the position of a mark
+     *
+     * @param pointer - the position of the mark
+     * @return the whole data (while it is not released) or the excerpt with the position
+     */
+    Excerpt get(int pointer) {
+        final Object source = data;
+        if (source != null) {
+            return new Excerpt(0, source);
+        }
+        final Excerpt[] kept = excerpts;
+        if (kept == null) {
+            return null;
+        }
+        // the last excerpt which starts before the position
+        int low = 0;
+        int high = kept.length - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (kept[middle].start <= pointer) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return kept[low];
+    }
+
+    /**
+     * Every group is copied from the line start (or the context) before the first mark to the line end
+     * (or the context) after the last mark. The data between the marks is copied too, so a window
+     * with a mark on every line is copied once.
+     */
+    private Excerpt[] createExcerpts(Object source) {
+        final int length = length(source);
+        final List<Excerpt> result = new ArrayList<>();
+        // the current part: the indices in the data and the position of its first code point
+        int start = 0;
+        int end = -1;
+        int startPosition = 0;
+        // the index in the data of the code point at the position
+        int index = 0;
+        int position = 0;
+        for (int i = 0; i < count; i += 2) {
+            final int first = groups[i];
+            if (position < first) {
+                index = offset(source, index, first - position);
+                position = first;
+            }
+            if (index > end) {
+                // a new part, it is merged when it is close to the current part
+                int from = index;
+                int back = 0;
+                while (from > 0 && from > end && back < SNIPPET_CONTEXT) {
+                    final int c = codePointBefore(source, from);
+                    if (CharConstants.NULL_OR_LINEBR.has(c)) {
+                        break;
+                    }
+                    from -= size(source, c);
+                    back++;
+                }
+                if (end < 0 || from - end > SNIPPET_CONTEXT) {
+                    if (end >= 0) {
+                        result.add(excerpt(source, startPosition, start, end));
+                    }
+                    start = from;
+                    startPosition = position - back;
+                }
+                end = index;
+            }
+            final int last = groups[i + 1];
+            if (position < last) {
+                index = offset(source, index, last - position);
+                position = last;
+                end = Math.max(end, index);
+            }
+            int forward = 0;
+            while (end < length && forward < SNIPPET_CONTEXT) {
+                final int c = codePointAt(source, end);
+                if (CharConstants.NULL_OR_LINEBR.has(c)) {
+                    break;
+                }
+                end += size(source, c);
+                forward++;
+            }
+        }
+        if (end >= 0) {
+            result.add(excerpt(source, startPosition, start, end));
+        }
+        return result.toArray(new Excerpt[0]);
+    }
+
+    private static Excerpt excerpt(Object source, int position, int from, int to) {
+        if (source instanceof byte[]) {
+            return new Excerpt(position, Arrays.copyOfRange((byte[]) source, from, to));
+        } else if (source instanceof char[]) {
+            return new Excerpt(position, Arrays.copyOfRange((char[]) source, from, to));
+        } else if (source instanceof int[]) {
+            return new Excerpt(position, Arrays.copyOfRange((int[]) source, from, to));
+        }
+        final char[] chars = new char[to - from];
+        final CharSequence sequence = (CharSequence) source;
+        for (int i = from; i < to; i++) {
+            chars[i - from] = sequence.charAt(i);
+        }
+        return new Excerpt(position, chars);
+    }
+
+    private static int length(Object source) {
+        if (source instanceof byte[]) {
+            return ((byte[]) source).length;
+        } else if (source instanceof char[]) {
+            return ((char[]) source).length;
+        } else if (source instanceof int[]) {
+            return ((int[]) source).length;
+        }
+        return ((CharSequence) source).length();
+    }
+
+    /**
+     * @return the index in the data of the code point which is the amount of code points after the index
+     */
+    private static int offset(Object source, int index, int codePoints) {
+        if (source instanceof char[]) {
+            final char[] chars = (char[]) source;
+            return Character.offsetByCodePoints(chars, 0, chars.length, index, codePoints);
+        } else if (source instanceof CharSequence) {
+            return Character.offsetByCodePoints((CharSequence) source, index, codePoints);
+        }
+        return index + codePoints;
+    }
+
+    private static int codePointAt(Object source, int index) {
+        if (source instanceof byte[]) {
+            return ((byte[]) source)[index] & 0xFF;
+        } else if (source instanceof char[]) {
+            return Character.codePointAt((char[]) source, index);
+        } else if (source instanceof int[]) {
+            return ((int[]) source)[index];
+        }
+        return Character.codePointAt((CharSequence) source, index);
+    }
+
+    private static int codePointBefore(Object source, int index) {
+        if (source instanceof byte[]) {
+            return ((byte[]) source)[index - 1] & 0xFF;
+        } else if (source instanceof char[]) {
+            return Character.codePointBefore((char[]) source, index);
+        } else if (source instanceof int[]) {
+            return ((int[]) source)[index - 1];
+        }
+        return Character.codePointBefore((CharSequence) source, index);
+    }
+
+    /**
+     * @return the amount of the array elements for the code point
+     */
+    private static int size(Object source, int codePoint) {
+        return source instanceof int[] ? 1 : Character.charCount(codePoint);
+    }
+
+    /**
+     * A part of the data (or the whole data)
+     */
+    static final class Excerpt {
+        /**
+         * The position of the first code point of the data
+         */
+        final int start;
+        final Object data;
+
+        Excerpt(int start, Object data) {
+            this.start = start;
+            this.data = data;
+        }
+    }
+}
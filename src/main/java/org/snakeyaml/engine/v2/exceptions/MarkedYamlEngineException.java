@@ -30,6 +30,8 @@ public class MarkedYamlEngineException extends YamlEngineException {
         super(context + "; " + problem + "; " + problemMark, cause);
         Objects.requireNonNull(contextMark, "contextMark must be provided");
         Objects.requireNonNull(problemMark, "problemMark must be provided");
+        contextMark.ifPresent(Mark::keepData);
+        problemMark.ifPresent(Mark::keepData);
         this.context = context;
         this.contextMark = contextMark;
         this.problem = problem;
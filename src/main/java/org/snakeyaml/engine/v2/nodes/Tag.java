@@ -17,7 +17,11 @@ package org.snakeyaml.engine.v2.nodes;
 
 import org.snakeyaml.engine.v2.common.UriEncoder;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class Tag {
     public static final String PREFIX = "tag:yaml.org,2002:";
@@ -33,6 +37,23 @@ public final class Tag {
 
     public static final Tag ENV_TAG = new Tag("!ENV_VARIABLE");
 
+    // the shared instances of the standard tags (the tags from the documents are never added)
+    private static final Map<String, Tag> STANDARD_TAGS;
+
+    static {
+        Map<String, Tag> tags = new HashMap<>();
+        for (Tag tag : new Tag[]{SET, BINARY, INT, FLOAT, BOOL, NULL, STR, SEQ, MAP, ENV_TAG}) {
+            tags.put(tag.getValue(), tag);
+        }
+        STANDARD_TAGS = Collections.unmodifiableMap(tags);
+    }
+
+    // the tags from the documents shared by all the loads. The tags come from the data, so the long tags
+    // are not kept and the cache is cleared when it is full (the tags which are used fill it again)
+    private static final int INTERNED_LIMIT = 4096;
+    private static final int INTERNED_MAX_LENGTH = 256;
+    private static final ConcurrentHashMap<String, Tag> INTERNED = new ConcurrentHashMap<>();
+
     private final String value;
 
     public Tag(String tag) {
@@ -55,6 +76,34 @@ public final class Tag {
         this.value = Tag.PREFIX + UriEncoder.encode(clazz.getName());
     }
 
+    /**
+     * Get the shared instance of the tag. The cache is shared by all the loads, so the same tag is validated
+     * and encoded only once. The standard tags (such as Tag.STR) are always the same instances.
+     *
+     * @param tag - the tag as it is found in the document
+     * @return the shared instance or a new tag when the tag is too long to be kept
+     */
+    public static Tag intern(String tag) {
+        Objects.requireNonNull(tag, "Tag must be provided.");
+        Tag interned = STANDARD_TAGS.get(tag);
+        if (interned == null) {
+            interned = INTERNED.get(tag);
+        }
+        if (interned == null) {
+            interned = new Tag(tag);
+            if (tag.length() <= INTERNED_MAX_LENGTH) {
+                if (INTERNED.size() >= INTERNED_LIMIT) {
+                    INTERNED.clear();
+                }
+                Tag previous = INTERNED.putIfAbsent(tag, interned);
+                if (previous != null) {
+                    interned = previous;
+                }
+            }
+        }
+        return interned;
+    }
+
     public String getValue() {
         return value;
     }
@@ -66,7 +115,10 @@ public final class Tag {
 
     @Override
     public boolean equals(Object obj) {
-        if (obj instanceof Tag) {
+        if (this == obj) {
+            // the shared tags are compared by identity
+            return true;
+        } else if (obj instanceof Tag) {
             return value.equals(((Tag) obj).getValue());
         } else
             return false;
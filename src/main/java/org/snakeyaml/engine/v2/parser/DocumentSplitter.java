@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Split the stream into the parts which can be parsed separately. The stream is split at the document
+ * start ('---') and the document end ('...') markers at the beginning of a line, because the markers
+ * always finish the previous document. The directives and the comments before '---' stay with the document
+ * they belong to. Every part contains at most one document.
+ */
+public final class DocumentSplitter {
+
+    private DocumentSplitter() {
+    }
+
+    /**
+     * A part of the stream with its position in the whole stream
+     */
+    public static final class Part {
+        private final CharSequence data;
+        private final int index;
+        private final int line;
+
+        Part(CharSequence data, int index, int line) {
+            this.data = data;
+            this.index = index;
+            this.line = line;
+        }
+
+        /**
+         * @return the data of the part (it is a view of the stream, the data is not copied)
+         */
+        public CharSequence getData() {
+            return data;
+        }
+
+        /**
+         * @return the index of the first code point of the part in the whole stream
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the line where the part starts
+         */
+        public int getLine() {
+            return line;
+        }
+    }
+
+    /**
+     * Split the complete stream. The empty parts are not included.
+     *
+     * @param yaml - the whole stream (BOM must not be present, except the one at the beginning)
+     * @return the parts in the order of the stream
+     */
+    public static List<Part> split(CharSequence yaml) {
+        List<Part> parts = new ArrayList<>();
+        final int length = yaml.length();
+        int partStart = 0;
+        int partIndex = 0;
+        int partLine = 0;
+        boolean partHasContent = false;
+        boolean partHasDirective = false;
+        int index = 0;
+        int line = 0;
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineEnd(yaml, lineStart);
+            int next = lineEnd < length ? lineEnd + 1 : lineEnd;
+            int start = lineStart == 0 && length > 0 && yaml.charAt(0) == '\uFEFF' ? 1 : lineStart;
+            boolean documentEnd = next > lineEnd && isMarker(yaml, "...", start, lineEnd);
+            if (isMarker(yaml, "---", start, lineEnd)) {
+                if (partHasContent) {
+                    parts.add(new Part(CharBuffer.wrap(yaml, partStart, lineStart), partIndex, partLine));
+                    partStart = lineStart;
+                    partIndex = index;
+                    partLine = line;
+                    partHasDirective = false;
+                }
+                partHasContent = true;
+            } else if (isDirective(yaml, start, lineEnd)) {
+                partHasDirective = true;
+            } else if (!documentEnd && !partHasContent && !isDirectiveOrComment(yaml, start, lineEnd)) {
+                partHasContent = true;
+            }
+            index += Character.codePointCount(yaml, lineStart, next);
+            line += countLines(yaml, lineStart, next);
+            if (documentEnd) {
+                if (partHasContent || partHasDirective || parts.isEmpty()) {
+                    parts.add(new Part(CharBuffer.wrap(yaml, partStart, next), partIndex, partLine));
+                }
+                // else: only comments and the document end marker after the previous document, nothing to parse
+                // the next part starts at the beginning of the next line
+                partStart = next;
+                partIndex = index;
+                partLine = line;
+                partHasContent = false;
+                partHasDirective = false;
+            }
+            lineStart = next;
+        }
+        if (partStart < length) {
+            parts.add(new Part(CharBuffer.wrap(yaml, partStart, length), partIndex, partLine));
+        }
+        return parts;
+    }
+
+    /**
+     * Only LF is a line break for the scanner
+     *
+     * @param text  - the data
+     * @param start - the beginning of the line
+     * @return the position of the LF or the end of the data
+     */
+    static int lineEnd(CharSequence text, int start) {
+        int i = start;
+        while (i < text.length() && text.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Count the lines the same way as StreamReader does (CR is counted when it is not followed by LF)
+     */
+    static int countLines(CharSequence text, int start, int end) {
+        int lines = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) != '\n')) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * The same check as in the scanner: the marker must be followed by a space, a tab or a line break
+     *
+     * @param text    - the data
+     * @param marker  - '---' or '...'
+     * @param start   - the beginning of the line
+     * @param lineEnd - the end of the line (LF or the end of the data)
+     * @return true if the line starts with the marker
+     */
+    static boolean isMarker(CharSequence text, String marker, int start, int lineEnd) {
+        if (lineEnd - start < 3 || text.charAt(start) != marker.charAt(0)
+                || text.charAt(start + 1) != marker.charAt(1) || text.charAt(start + 2) != marker.charAt(2)) {
+            return false;
+        }
+        if (start + 3 == lineEnd) {
+            return true;
+        }
+        char c = text.charAt(start + 3);
+        return c == ' ' || c == '\t';
+    }
+
+    /**
+     * @param text    - the data
+     * @param start   - the beginning of the line
+     * @param lineEnd - the end of the line (LF or the end of the data)
+     * @return true if the line is a directive
+     */
+    static boolean isDirective(CharSequence text, int start, int lineEnd) {
+        return start < lineEnd && text.charAt(start) == '%';
+    }
+
+    /**
+     * The lines which do not start a document by themselves
+     *
+     * @param text    - the data
+     * @param start   - the beginning of the line
+     * @param lineEnd - the end of the line (LF or the end of the data)
+     * @return true for a directive, a comment or an empty line
+     */
+    static boolean isDirectiveOrComment(CharSequence text, int start, int lineEnd) {
+        if (isDirective(text, start, lineEnd)) {
+            return true;
+        }
+        int i = start;
+        while (i < lineEnd && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        return i == lineEnd || text.charAt(i) == '#';
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Non-blocking parser. The data is pushed in chunks with feed() and the events are pulled with pollEvent().
+ * When no event is available yet, more input is required (unless the parser is finished), see {@link #status()}.
+ * <p>
+ * The whole stream is parsed by a single {@link ParserImpl}, so the events and the errors are the same as for
+ * {@link org.snakeyaml.engine.v2.api.lowlevel.Parse}. The scanner may look ahead without limit, so the parser
+ * runs only when the end of the current document is fed: a document start ('---') or a document end ('...')
+ * marker at the beginning of a line, or the end of the input. The scanner never needs the data after such
+ * a marker to finish the previous document.
+ * </p>
+ * This class is not thread-safe.
+ */
+public final class FeedParser {
+
+    /**
+     * The state of the parser for the caller
+     */
+    public enum Status {
+        /**
+         * The next event is available with pollEvent()
+         */
+        EVENT_AVAILABLE,
+        /**
+         * No event can be parsed until more data is fed (or the end of the input is indicated)
+         */
+        NEED_MORE_INPUT,
+        /**
+         * All the events are taken, StreamEnd was the last one
+         */
+        FINISHED
+    }
+
+    private final LoadSettings settings;
+    /**
+     * The decoder for the bytes (created when the encoding is detected)
+     */
+    private CharsetDecoder decoder;
+    /**
+     * The bytes which are not decoded yet
+     */
+    private ByteBuffer bytes = ByteBuffer.allocate(0);
+    /**
+     * The decoded data which is not yet read by the parser
+     */
+    private final StringBuilder text = new StringBuilder();
+    /**
+     * The text before this position is already read by the parser, it is removed by feed()
+     */
+    private int readPosition = 0;
+    /**
+     * The lines before this position in the text are already checked for the document markers
+     */
+    private int checked = 0;
+    private boolean segmentHasContent = false;
+    private boolean segmentHasDirective = false;
+    private boolean segmentAdded = false;
+    private boolean streamStart = true;
+    private boolean endOfInput = false;
+    /**
+     * The amount of the documents which end in the checked lines
+     */
+    private int documentParts = 0;
+    /**
+     * The amount of the DocumentEnd events produced by the parser
+     */
+    private int documentsEnded = 0;
+    private ParserImpl parser;
+    private boolean finished = false;
+    /**
+     * The event which is parsed but not taken yet
+     */
+    private Event nextEvent;
+
+    /**
+     * Create instance with provided {@link LoadSettings}
+     *
+     * @param settings - configuration
+     */
+    public FeedParser(LoadSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Add bytes to the stream. The encoding is detected by the BOM as for
+     * {@link org.snakeyaml.engine.v2.api.YamlUnicodeReader} (UTF-8 by default).
+     * The bytes between the position and the limit are consumed.
+     *
+     * @param chunk - the next part of the data
+     */
+    public void feed(ByteBuffer chunk) {
+        checkInput();
+        if (bytes.remaining() + chunk.remaining() > bytes.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(bytes.remaining() + chunk.remaining());
+            larger.put(bytes);
+            larger.flip();
+            bytes = larger;
+        }
+        bytes.compact();
+        bytes.put(chunk);
+        bytes.flip();
+        decode();
+    }
+
+    /**
+     * Add characters to the stream. The BOM must not be present.
+     *
+     * @param chunk - the next part of the data
+     */
+    public void feed(CharSequence chunk) {
+        checkInput();
+        if (decoder != null || bytes.hasRemaining()) {
+            throw new IllegalStateException("Characters cannot be mixed with bytes.");
+        }
+        text.append(chunk);
+        split();
+    }
+
+    /**
+     * Indicate that all the data is fed. The rest of the stream can be parsed.
+     */
+    public void endOfInput() {
+        checkInput();
+        endOfInput = true;
+        if (bytes.hasRemaining() || decoder != null) {
+            decode();
+        } else {
+            split();
+        }
+    }
+
+    /**
+     * Get the next event.
+     * An empty result means either NEED_MORE_INPUT or FINISHED, use {@link #status()} or {@link #isFinished()}
+     * to tell them apart.
+     *
+     * @return the next event or empty when more input is required (or the stream is finished)
+     * @throws org.snakeyaml.engine.v2.exceptions.YamlEngineException if the data is not valid
+     */
+    public Optional<Event> pollEvent() {
+        Event event = parseEvent();
+        nextEvent = null;
+        return Optional.ofNullable(event);
+    }
+
+    /**
+     * Check what the caller can do next. The next event is parsed when it is possible
+     * (but it is not taken).
+     * <p>
+     * The events of a document are parsed only when the next '---' or '...' marker line (or the end of the input)
+     * is fed, NEED_MORE_INPUT lasts for the whole document until then. A stream with a single document
+     * without the end marker produces no events (not even StreamStart) before {@link #endOfInput()}.
+     * </p>
+     *
+     * @return EVENT_AVAILABLE, NEED_MORE_INPUT or FINISHED
+     * @throws org.snakeyaml.engine.v2.exceptions.YamlEngineException if the data is not valid
+     */
+    public Status status() {
+        if (parseEvent() != null) {
+            return Status.EVENT_AVAILABLE;
+        }
+        return finished ? Status.FINISHED : Status.NEED_MORE_INPUT;
+    }
+
+    /**
+     * @return the next event (kept until it is taken) or null when it is not available
+     */
+    private Event parseEvent() {
+        if (nextEvent != null) {
+            return nextEvent;
+        }
+        if (finished || (!endOfInput && documentsEnded == documentParts)) {
+            return null;
+        }
+        if (parser == null) {
+            parser = new ParserImpl(new StreamReader(new Input(), settings), settings);
+        }
+        Event event = parser.next();
+        if (event.getEventId() == Event.ID.DocumentEnd) {
+            documentsEnded++;
+        } else if (event.getEventId() == Event.ID.StreamEnd) {
+            finished = true;
+        }
+        nextEvent = event;
+        return event;
+    }
+
+    /**
+     * @return true when all the events are taken (StreamEnd was the last one)
+     */
+    public boolean isFinished() {
+        return finished && nextEvent == null;
+    }
+
+    private void checkInput() {
+        if (endOfInput) {
+            throw new IllegalStateException("The end of the input is already indicated.");
+        }
+    }
+
+    private void decode() {
+        if (decoder == null) {
+            if (bytes.remaining() < 4 && !endOfInput) {
+                // wait for the BOM
+                return;
+            }
+            decoder = detectEncoding().newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+        CharBuffer chars = CharBuffer.allocate(bytes.remaining() + 2);
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, endOfInput);
+            if (result.isUnderflow() && endOfInput) {
+                result = decoder.flush(chars);
+            }
+            if (result.isError()) {
+                try {
+                    result.throwException();
+                } catch (CharacterCodingException e) {
+                    throw new YamlEngineException(e);
+                }
+            }
+            chars.flip();
+            text.append(chars);
+            chars.clear();
+        } while (result.isOverflow());
+        split();
+    }
+
+    /**
+     * Detect the encoding by the BOM and skip the BOM
+     *
+     * @return the encoding of the bytes
+     */
+    private Charset detectEncoding() {
+        int position = bytes.position();
+        int available = bytes.remaining();
+        int b0 = available > 0 ? bytes.get(position) & 0xFF : -1;
+        int b1 = available > 1 ? bytes.get(position + 1) & 0xFF : -1;
+        int b2 = available > 2 ? bytes.get(position + 2) & 0xFF : -1;
+        int b3 = available > 3 ? bytes.get(position + 3) & 0xFF : -1;
+        if (b0 == 0x00 && b1 == 0x00 && b2 == 0xFE && b3 == 0xFF) {
+            bytes.position(position + 4);
+            return Charset.forName("UTF-32BE");
+        } else if (b0 == 0xFF && b1 == 0xFE && b2 == 0x00 && b3 == 0x00) {
+            bytes.position(position + 4);
+            return Charset.forName("UTF-32LE");
+        } else if (b0 == 0xEF && b1 == 0xBB && b2 == 0xBF) {
+            bytes.position(position + 3);
+            return StandardCharsets.UTF_8;
+        } else if (b0 == 0xFE && b1 == 0xFF) {
+            bytes.position(position + 2);
+            return StandardCharsets.UTF_16BE;
+        } else if (b0 == 0xFF && b1 == 0xFE) {
+            bytes.position(position + 2);
+            return StandardCharsets.UTF_16LE;
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Find the complete lines with the document markers and count the documents which end there
+     * (as {@link DocumentSplitter} does for the whole stream). The text which is already read is removed.
+     */
+    private void split() {
+        int lineStart = checked;
+        while (true) {
+            int lineEnd = DocumentSplitter.lineEnd(text, lineStart);
+            if (lineEnd == text.length()) {
+                break;
+            }
+            int start = lineStart;
+            if (streamStart && start < lineEnd && text.charAt(start) == '\uFEFF') {
+                start++;
+            }
+            streamStart = false;
+            if (DocumentSplitter.isMarker(text, "---", start, lineEnd)) {
+                if (segmentHasContent) {
+                    addSegment();
+                }
+                segmentHasContent = true;
+            } else if (DocumentSplitter.isMarker(text, "...", start, lineEnd)) {
+                // only comments and the document end marker after the previous document do not make a document
+                if (segmentHasContent || segmentHasDirective || !segmentAdded) {
+                    addSegment();
+                }
+                segmentHasContent = false;
+                segmentHasDirective = false;
+            } else if (DocumentSplitter.isDirective(text, start, lineEnd)) {
+                segmentHasDirective = true;
+            } else if (!segmentHasContent && !DocumentSplitter.isDirectiveOrComment(text, start, lineEnd)) {
+                segmentHasContent = true;
+            }
+            lineStart = lineEnd + 1;
+        }
+        checked = lineStart;
+        // the rest of the text is moved when most of it is read
+        if (readPosition > 0 && readPosition >= text.length() - readPosition) {
+            text.delete(0, readPosition);
+            checked -= readPosition;
+            readPosition = 0;
+        }
+    }
+
+    private void addSegment() {
+        documentParts++;
+        segmentAdded = true;
+        segmentHasDirective = false;
+    }
+
+    /**
+     * The text for the parser. Only the checked lines are available until the end of the input,
+     * the parser does not run when it may need more.
+     */
+    private final class Input extends Reader {
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int limit = endOfInput ? text.length() : checked;
+            if (readPosition == limit) {
+                if (endOfInput) {
+                    return -1;
+                }
+                throw new IllegalStateException("The end of the document is not fed yet.");
+            }
+            int end = Math.min(limit, readPosition + length);
+            text.getChars(readPosition, end, buffer, offset);
+            int read = end - readPosition;
+            readPosition = end;
+            return read;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,552 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.common.ScalarStyle;
+import org.snakeyaml.engine.v2.events.DocumentEndEvent;
+import org.snakeyaml.engine.v2.events.DocumentStartEvent;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.events.ImplicitTuple;
+import org.snakeyaml.engine.v2.events.MappingEndEvent;
+import org.snakeyaml.engine.v2.events.MappingStartEvent;
+import org.snakeyaml.engine.v2.events.ScalarEvent;
+import org.snakeyaml.engine.v2.events.SequenceEndEvent;
+import org.snakeyaml.engine.v2.events.SequenceStartEvent;
+import org.snakeyaml.engine.v2.events.StreamEndEvent;
+import org.snakeyaml.engine.v2.events.StreamStartEvent;
+import org.snakeyaml.engine.v2.exceptions.Mark;
+import org.snakeyaml.engine.v2.exceptions.MarkDataSource;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.snakeyaml.engine.v2.common.CharConstants.escapeCodeLength;
+import static org.snakeyaml.engine.v2.common.CharConstants.escapeReplacement;
+import static org.snakeyaml.engine.v2.common.CharConstants.hexDigit;
+
+/**
+ * Parser for the data which is a single flow collection in the JSON-compatible subset of YAML.
+ * It produces the same events as {@link ParserImpl} without the scanner: the {@link StructuralIndex}
+ * finds the structure in one pass over the data, then the index is checked against the grammar and
+ * the nodes are recorded in a tape (the kind and the position of every node). The events are created
+ * from the tape when they are requested.
+ * <p>
+ * Use {@link #create(CharSequence, LoadSettings)}, it falls back to {@link ParserImpl} for any other data.
+ * </p>
+ */
+public final class FlowIndexParser implements Parser {
+
+    // the kinds of the tape entries
+    private static final int SEQUENCE_START = 1;
+    private static final int SEQUENCE_END = 2;
+    private static final int MAPPING_START = 3;
+    private static final int MAPPING_END = 4;
+    private static final int PLAIN = 5;
+    private static final int QUOTED = 6;
+    private static final int QUOTED_ESCAPED = 7;
+    private static final int EMPTY = 8;
+    /**
+     * Every tape entry is the kind, the start and the end of the node (the number of the closing entry
+     * for the start of a collection)
+     */
+    private static final int ENTRY_SIZE = 3;
+
+    // the states of the grammar in a collection
+    private static final int SEQUENCE_ENTRY = 0;
+    private static final int SEQUENCE_AFTER_ENTRY = 1;
+    private static final int MAPPING_KEY = 2;
+    private static final int MAPPING_AFTER_KEY = 3;
+    private static final int MAPPING_VALUE = 4;
+    private static final int MAPPING_AFTER_VALUE = 5;
+
+    /**
+     * The scanner does not look for the ':' of a simple key further
+     */
+    private static final int MAX_SIMPLE_KEY_LENGTH = 1024;
+
+    private final CharSequence data;
+    private final String name;
+    private final boolean useMarks;
+    private final boolean retainMarkData;
+    private final boolean useScalarSlices;
+    private int[] tape;
+    private int entries;
+    private int documentStart;
+    // the quoted scalar which is just checked has escape sequences
+    private boolean escaped;
+
+    // the next entry: -2 for the stream start, -1 for the document start, entries for the document end
+    private int entry = -2;
+    private Event currentEvent;
+
+    // the position of the last mark (the marks are created in the order of the data)
+    private int markPosition = 0;
+    private int markIndex = 0;
+    private int markLine = 0;
+    private int markColumn = 0;
+    // provides the data for the snippets of the marks, only the lines around the marks are kept after the stream end
+    private MarkDataSource markData;
+
+    private FlowIndexParser(CharSequence data, LoadSettings settings) {
+        this.data = data;
+        this.name = settings.getLabel();
+        this.useMarks = settings.getUseMarks();
+        this.retainMarkData = settings.getRetainMarkData();
+        this.useScalarSlices = settings.getUseScalarSlices();
+        this.tape = new int[64 * ENTRY_SIZE];
+        this.entries = 0;
+    }
+
+    /**
+     * Create the parser for the data. The structural index is used when it is enabled in the settings
+     * and the data is a single flow collection in the supported subset, otherwise it is {@link ParserImpl}.
+     *
+     * @param yaml     - the data (it must not be changed until all the events are parsed)
+     * @param settings - configuration
+     * @return the parser
+     */
+    public static Parser create(CharSequence yaml, LoadSettings settings) {
+        if (settings.getUseStructuralIndex()) {
+            Optional<StructuralIndex> index = StructuralIndex.build(yaml);
+            if (index.isPresent()) {
+                FlowIndexParser parser = new FlowIndexParser(yaml, settings);
+                if (parser.record(index.get())) {
+                    return parser;
+                }
+            }
+        }
+        return new ParserImpl(new StreamReader(yaml, settings), settings);
+    }
+
+    /**
+     * Check the grammar and record the nodes in the tape
+     *
+     * @return false if the data is not supported
+     */
+    private boolean record(StructuralIndex index) {
+        final int count = index.size();
+        if (count == 0) {
+            return false;
+        }
+        final char root = data.charAt(index.get(0));
+        if (root != '[' && root != '{') {
+            return false;
+        }
+        int[] parentStates = new int[16];
+        int[] starts = new int[16];
+        int depth = 0;
+        int state = SEQUENCE_ENTRY;
+        int keyStart = 0;
+        int keyEnd = 0;
+        int valuePosition = 0;
+        int i = 0;
+        while (i < count) {
+            if (depth == 0 && i > 0) {
+                // the content after the collection
+                return false;
+            }
+            final int position = index.get(i);
+            final char c = data.charAt(position);
+            i++;
+            switch (c) {
+                case '[':
+                case '{':
+                    if (depth == 0) {
+                        documentStart = position;
+                    } else if (state != SEQUENCE_ENTRY && state != MAPPING_VALUE) {
+                        return false;
+                    }
+                    if (depth == starts.length) {
+                        starts = Arrays.copyOf(starts, depth * 2);
+                        parentStates = Arrays.copyOf(parentStates, depth * 2);
+                    }
+                    parentStates[depth] = state == SEQUENCE_ENTRY ? SEQUENCE_AFTER_ENTRY : MAPPING_AFTER_VALUE;
+                    starts[depth] = entries;
+                    depth++;
+                    add(c == '[' ? SEQUENCE_START : MAPPING_START, position, 0);
+                    state = c == '[' ? SEQUENCE_ENTRY : MAPPING_KEY;
+                    break;
+                case ']':
+                    if (state != SEQUENCE_ENTRY && state != SEQUENCE_AFTER_ENTRY) {
+                        return false;
+                    }
+                    depth--;
+                    tape[starts[depth] * ENTRY_SIZE + 2] = entries;
+                    add(SEQUENCE_END, position, position + 1);
+                    state = parentStates[depth];
+                    break;
+                case '}':
+                    if (state == MAPPING_AFTER_KEY) {
+                        add(EMPTY, position, position);
+                    } else if (state == MAPPING_VALUE) {
+                        add(EMPTY, valuePosition, valuePosition);
+                    } else if (state != MAPPING_KEY && state != MAPPING_AFTER_VALUE) {
+                        return false;
+                    }
+                    depth--;
+                    tape[starts[depth] * ENTRY_SIZE + 2] = entries;
+                    add(MAPPING_END, position, position + 1);
+                    state = parentStates[depth];
+                    break;
+                case ',':
+                    if (state == SEQUENCE_AFTER_ENTRY) {
+                        state = SEQUENCE_ENTRY;
+                    } else if (state == MAPPING_AFTER_KEY || state == MAPPING_VALUE || state == MAPPING_AFTER_VALUE) {
+                        if (state == MAPPING_AFTER_KEY) {
+                            add(EMPTY, position, position);
+                        } else if (state == MAPPING_VALUE) {
+                            add(EMPTY, valuePosition, valuePosition);
+                        }
+                        state = MAPPING_KEY;
+                    } else {
+                        return false;
+                    }
+                    break;
+                case ':':
+                    // the simple key must be in the same line
+                    if (state != MAPPING_AFTER_KEY || position - keyStart > MAX_SIMPLE_KEY_LENGTH
+                            || hasLineBreak(keyEnd, position)) {
+                        return false;
+                    }
+                    valuePosition = position + 1;
+                    state = MAPPING_VALUE;
+                    break;
+                default:
+                    // a scalar
+                    if (state != SEQUENCE_ENTRY && state != MAPPING_KEY && state != MAPPING_VALUE) {
+                        return false;
+                    }
+                    final int end;
+                    if (c == '"') {
+                        end = checkQuoted(position);
+                        if (end < 0) {
+                            return false;
+                        }
+                        add(escaped ? QUOTED_ESCAPED : QUOTED, position, end);
+                    } else {
+                        end = checkPlain(position);
+                        if (end < 0) {
+                            return false;
+                        }
+                        add(PLAIN, position, end);
+                        // the next words of the plain scalar
+                        while (i < count && index.get(i) < end) {
+                            i++;
+                        }
+                    }
+                    if (state == MAPPING_KEY) {
+                        keyStart = position;
+                        keyEnd = end;
+                        state = MAPPING_AFTER_KEY;
+                    } else {
+                        state = state == SEQUENCE_ENTRY ? SEQUENCE_AFTER_ENTRY : MAPPING_AFTER_VALUE;
+                    }
+            }
+        }
+        return depth == 0;
+    }
+
+    private boolean hasLineBreak(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (data.charAt(i) == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param position - the position of the opening quote
+     * @return the position after the closing quote or -1 if the escape sequence is not supported
+     */
+    private int checkQuoted(int position) {
+        escaped = false;
+        int i = position + 1;
+        while (true) {
+            final char c = data.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            } else if (c == '\\') {
+                // the index guarantees that the scalar is closed
+                final char code = data.charAt(i + 1);
+                escaped = true;
+                final int length = escapeCodeLength(code);
+                if (escapeReplacement(code) != -1) {
+                    i += 2;
+                } else if (length != 0) {
+                    if (i + 2 + length > data.length()) {
+                        return -1;
+                    }
+                    int codePoint = 0;
+                    for (int j = i + 2; j < i + 2 + length; j++) {
+                        final int digit = hexDigit(data.charAt(j));
+                        if (digit == -1) {
+                            return -1;
+                        }
+                        codePoint = (codePoint << 4) | digit;
+                    }
+                    if (!Character.isValidCodePoint(codePoint)) {
+                        return -1;
+                    }
+                    i += 2 + length;
+                } else {
+                    // line breaks and unknown escape sequences
+                    return -1;
+                }
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * The plain scalar is one or more words separated by spaces in the same line.
+     *
+     * @param position - the first char
+     * @return the position after the last word or -1 if the scalar is not supported
+     */
+    private int checkPlain(int position) {
+        final int length = data.length();
+        final char first = data.charAt(position);
+        if (first == '-' && (position + 1 == length || !StructuralIndex.isPlain(data.charAt(position + 1)))) {
+            return -1;
+        }
+        if ((first == '-' || first == '.') && position + 2 < length
+                && data.charAt(position + 1) == first && data.charAt(position + 2) == first) {
+            // may be a document marker
+            return -1;
+        }
+        int i = position;
+        while (true) {
+            while (i < length && StructuralIndex.isPlain(data.charAt(i))) {
+                i++;
+            }
+            final int end = i;
+            while (i < length && (data.charAt(i) == ' ' || data.charAt(i) == '\t')) {
+                i++;
+            }
+            if (i < length && data.charAt(i) == ':' && i + 1 < length) {
+                // ':' belongs to the plain scalar unless it is followed by a space or a flow indicator
+                final char next = data.charAt(i + 1);
+                if (!StructuralIndex.isWhitespace(next) && ",[]{}".indexOf(next) == -1) {
+                    return -1;
+                }
+            }
+            if (i == end || i == length || !StructuralIndex.isPlain(data.charAt(i))) {
+                return end;
+            }
+        }
+    }
+
+    private void add(int kind, int start, int end) {
+        if (entries * ENTRY_SIZE == tape.length) {
+            tape = Arrays.copyOf(tape, tape.length * 2);
+        }
+        final int base = entries * ENTRY_SIZE;
+        tape[base] = kind;
+        tape[base + 1] = start;
+        tape[base + 2] = end;
+        entries++;
+    }
+
+    private Event produce() {
+        if (entry == -2) {
+            entry++;
+            Optional<Mark> mark = mark(0);
+            return new StreamStartEvent(mark, mark);
+        } else if (entry == -1) {
+            entry++;
+            Optional<Mark> mark = mark(documentStart);
+            return new DocumentStartEvent(false, Optional.empty(), Collections.emptyMap(), mark, mark);
+        } else if (entry < entries) {
+            final int base = entry * ENTRY_SIZE;
+            final int start = tape[base + 1];
+            final int end = tape[base + 2];
+            entry++;
+            switch (tape[base]) {
+                case SEQUENCE_START:
+                    return new SequenceStartEvent(Optional.empty(), Optional.empty(), true, FlowStyle.FLOW,
+                            mark(start), mark(start + 1));
+                case SEQUENCE_END:
+                    return new SequenceEndEvent(mark(start), mark(end));
+                case MAPPING_START:
+                    return new MappingStartEvent(Optional.empty(), Optional.empty(), true, FlowStyle.FLOW,
+                            mark(start), mark(start + 1));
+                case MAPPING_END:
+                    return new MappingEndEvent(mark(start), mark(end));
+                case PLAIN:
+                    return new ScalarEvent(Optional.empty(), Optional.empty(), new ImplicitTuple(true, false),
+                            value(start, end), ScalarStyle.PLAIN, mark(start), mark(end));
+                case QUOTED:
+                    return new ScalarEvent(Optional.empty(), Optional.empty(), new ImplicitTuple(false, true),
+                            value(start + 1, end - 1), ScalarStyle.DOUBLE_QUOTED, mark(start), mark(end));
+                case QUOTED_ESCAPED:
+                    return new ScalarEvent(Optional.empty(), Optional.empty(), new ImplicitTuple(false, true),
+                            unescape(start + 1, end - 1), ScalarStyle.DOUBLE_QUOTED, mark(start), mark(end));
+                default:
+                    Optional<Mark> mark = mark(start);
+                    return new ScalarEvent(Optional.empty(), Optional.empty(), new ImplicitTuple(true, false), "",
+                            ScalarStyle.PLAIN, mark, mark);
+            }
+        } else if (entry == entries) {
+            entry++;
+            Optional<Mark> mark = mark(data.length());
+            return new DocumentEndEvent(false, mark, mark);
+        } else if (entry == entries + 1) {
+            entry++;
+            Optional<Mark> mark = mark(data.length());
+            if (markData != null && !retainMarkData) {
+                // the data may be changed after the stream end, the marks must not show it
+                markData.release();
+            }
+            return new StreamEndEvent(mark, mark);
+        }
+        throw new NoSuchElementException("No more Events found.");
+    }
+
+    private CharSequence value(int start, int end) {
+        if (useScalarSlices && start < end) {
+            return CharBuffer.wrap(data, start, end);
+        }
+        return data.subSequence(start, end).toString();
+    }
+
+    private String unescape(int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            final char c = data.charAt(i);
+            if (c == '\\') {
+                final char code = data.charAt(i + 1);
+                final int replacement = escapeReplacement(code);
+                if (replacement != -1) {
+                    builder.append((char) replacement);
+                    i += 2;
+                } else {
+                    // the sequence is already checked
+                    final int length = escapeCodeLength(code);
+                    int codePoint = 0;
+                    for (int j = i + 2; j < i + 2 + length; j++) {
+                        codePoint = (codePoint << 4) | hexDigit(data.charAt(j));
+                    }
+                    builder.appendCodePoint(codePoint);
+                    i += 2 + length;
+                }
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Create the mark at the position which is not before the previous mark. The position is counted
+     * the same way as in {@link StreamReader}.
+     */
+    private Optional<Mark> mark(int position) {
+        if (!useMarks) {
+            return Optional.empty();
+        }
+        final int length = data.length();
+        while (markPosition < position) {
+            final char c = data.charAt(markPosition++);
+            markIndex++;
+            if (c == '\n' || (c == '\r' && markPosition < length && data.charAt(markPosition) != '\n')) {
+                markLine++;
+                markColumn = 0;
+            } else if (Character.isHighSurrogate(c)) {
+                // the index guarantees the low surrogate
+                markPosition++;
+                markColumn++;
+            } else if (c != '\uFEFF') {
+                markColumn++;
+            }
+        }
+        if (markData == null) {
+            if (retainMarkData) {
+                // copy the data before it may be changed
+                markData = new MarkDataSource(data.toString().toCharArray(), true);
+            } else {
+                markData = new MarkDataSource(data, false);
+            }
+        }
+        return Optional.of(markData.createMark(name, markIndex, markLine, markColumn, markIndex));
+    }
+
+    /**
+     * Check the type of the next event.
+     */
+    @Override
+    public boolean checkEvent(Event.ID choice) {
+        return peekEvent().getEventId() == choice;
+    }
+
+    /**
+     * Get the next event.
+     */
+    @Override
+    public Event peekEvent() {
+        if (currentEvent == null) {
+            currentEvent = produce();
+        }
+        return currentEvent;
+    }
+
+    /**
+     * Get the next event and proceed further.
+     */
+    @Override
+    public Event next() {
+        Event value = peekEvent();
+        currentEvent = null;
+        return value;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return currentEvent != null || entry <= entries + 1;
+    }
+
+    /**
+     * Skip the node which starts with the next event. The tape keeps the end of every collection,
+     * the events of the content are not created.
+     */
+    @Override
+    public void skipCurrentNode() {
+        Event event = peekEvent();
+        switch (event.getEventId()) {
+            case Scalar:
+            case Alias:
+                next();
+                break;
+            case SequenceStart:
+            case MappingStart:
+                currentEvent = null;
+                // the start entry is already taken
+                entry = tape[(entry - 1) * ENTRY_SIZE + 2] + 1;
+                break;
+            default:
+                throw new IllegalStateException("The next event does not start a node: " + event.getEventId());
+        }
+    }
+}
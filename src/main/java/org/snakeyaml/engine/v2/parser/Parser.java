@@ -62,4 +62,33 @@ public interface Parser extends Iterator<Event> {
      * @throws ParserException Thrown in case of malformed input.
      */
     Event next();
+
+    /**
+     * Skip the node which starts with the next event (a scalar, an alias or a whole collection).
+     * The events of the node are not returned.
+     *
+     * @throws ParserException       Thrown in case of malformed input.
+     * @throws IllegalStateException if the next event does not start a node
+     */
+    default void skipCurrentNode() {
+        Event.ID id = peekEvent().getEventId();
+        if (id != Event.ID.Scalar && id != Event.ID.Alias
+                && id != Event.ID.SequenceStart && id != Event.ID.MappingStart) {
+            throw new IllegalStateException("The next event does not start a node: " + id);
+        }
+        int depth = 0;
+        do {
+            switch (next().getEventId()) {
+                case SequenceStart:
+                case MappingStart:
+                    depth++;
+                    break;
+                case SequenceEnd:
+                case MappingEnd:
+                    depth--;
+                    break;
+                default:
+            }
+        } while (depth > 0);
+    }
 }
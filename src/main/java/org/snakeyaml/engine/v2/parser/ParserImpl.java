@@ -51,6 +51,7 @@ import org.snakeyaml.engine.v2.tokens.TagToken;
 import org.snakeyaml.engine.v2.tokens.TagTuple;
 import org.snakeyaml.engine.v2.tokens.Token;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -129,13 +130,71 @@ public class ParserImpl implements Parser {
         DEFAULT_TAGS.put("!!", Tag.PREFIX);
     }
 
+    // ImplicitTuple is immutable, the same instances are used for every scalar
+    private static final ImplicitTuple IMPLICIT_PLAIN = new ImplicitTuple(true, false);
+    private static final ImplicitTuple IMPLICIT_NON_PLAIN = new ImplicitTuple(false, true);
+    private static final ImplicitTuple IMPLICIT_BOTH = new ImplicitTuple(true, true);
+    private static final ImplicitTuple IMPLICIT_NONE = new ImplicitTuple(false, false);
+
+    // the states of the parser, every state is parsed by the method with the same name
+    private static final int END = 0;
+    private static final int PARSE_STREAM_START = 1;
+    private static final int PARSE_IMPLICIT_DOCUMENT_START = 2;
+    private static final int PARSE_DOCUMENT_START = 3;
+    private static final int PARSE_DOCUMENT_END = 4;
+    private static final int PARSE_DOCUMENT_CONTENT = 5;
+    private static final int PARSE_BLOCK_NODE = 6;
+    private static final int PARSE_BLOCK_SEQUENCE_FIRST_ENTRY = 7;
+    private static final int PARSE_BLOCK_SEQUENCE_ENTRY = 8;
+    private static final int PARSE_INDENTLESS_SEQUENCE_ENTRY = 9;
+    private static final int PARSE_BLOCK_MAPPING_FIRST_KEY = 10;
+    private static final int PARSE_BLOCK_MAPPING_KEY = 11;
+    private static final int PARSE_BLOCK_MAPPING_VALUE = 12;
+    private static final int PARSE_FLOW_SEQUENCE_FIRST_ENTRY = 13;
+    private static final int PARSE_FLOW_SEQUENCE_ENTRY_FIRST = 14;
+    private static final int PARSE_FLOW_SEQUENCE_ENTRY = 15;
+    private static final int PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_KEY = 16;
+    private static final int PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_VALUE = 17;
+    private static final int PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_END = 18;
+    private static final int PARSE_FLOW_MAPPING_FIRST_KEY = 19;
+    private static final int PARSE_FLOW_MAPPING_KEY_FIRST = 20;
+    private static final int PARSE_FLOW_MAPPING_KEY = 21;
+    private static final int PARSE_FLOW_MAPPING_VALUE = 22;
+    private static final int PARSE_FLOW_MAPPING_EMPTY_VALUE = 23;
+
+    private static final int RESOLVED_TAGS_LIMIT = 256;
+    private static final int RESOLVED_TAG_MAX_LENGTH = 256;
+
+    // the sets of the tokens which are checked by the productions
+    private static final long AFTER_FLOW_SEQUENCE_KEY = Token.ID.maskOf(Token.ID.Value, Token.ID.FlowEntry, Token.ID.FlowSequenceEnd);
+    private static final long AFTER_FLOW_SEQUENCE_VALUE = Token.ID.maskOf(Token.ID.FlowEntry, Token.ID.FlowSequenceEnd);
+    private static final long AFTER_INDENTLESS_ENTRY = Token.ID.maskOf(Token.ID.BlockEntry, Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd);
+    private static final long NODE_PROPERTIES = Token.ID.maskOf(Token.ID.Anchor, Token.ID.Tag);
+    private static final long SCALAR_OR_ALIAS = Token.ID.maskOf(Token.ID.Scalar, Token.ID.Alias);
+    private static final long COLLECTION_START = Token.ID.maskOf(Token.ID.BlockSequenceStart, Token.ID.BlockMappingStart, Token.ID.FlowSequenceStart, Token.ID.FlowMappingStart);
+    private static final long EXPLICIT_DOCUMENT = Token.ID.maskOf(Token.ID.Directive, Token.ID.DocumentStart, Token.ID.StreamEnd);
+    private static final long EMPTY_DOCUMENT = Token.ID.maskOf(Token.ID.Directive, Token.ID.DocumentStart, Token.ID.DocumentEnd, Token.ID.StreamEnd);
+    private static final long AFTER_BLOCK_ENTRY = Token.ID.maskOf(Token.ID.BlockEntry, Token.ID.BlockEnd);
+    private static final long AFTER_BLOCK_MAPPING_ENTRY = Token.ID.maskOf(Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd);
+    private static final long AFTER_FLOW_MAPPING_KEY = Token.ID.maskOf(Token.ID.Value, Token.ID.FlowEntry, Token.ID.FlowMappingEnd);
+    private static final long AFTER_FLOW_MAPPING_VALUE = Token.ID.maskOf(Token.ID.FlowEntry, Token.ID.FlowMappingEnd);
+
     protected final Scanner scanner;
     private final LoadSettings settings;
-    private Optional<Event> currentEvent;
-    private final ArrayStack<Production> states;
+    // the next event (null when it is not produced yet)
+    private Event currentEvent;
+    // the states to return to after the nested nodes
+    private int[] states;
+    private int statesSize;
     private final ArrayStack<Optional<Mark>> marksStack;
-    private Optional<Production> state;
+    // the current state (END at the end of the stream)
+    private int state;
     private VersionTagsTuple directives;
+    // the ID of the next token, it is kept until the token is taken (null when it is not checked yet)
+    private Token.ID nextTokenId;
+    // the resolved tags by the handle and the suffix, they are valid for the tag handles in resolvedTagsFor
+    private final Map<String, Map<String, String>> resolvedTags = new HashMap<>();
+    private Map<String, String> resolvedTagsFor = Collections.emptyMap();
 
     public ParserImpl(StreamReader reader, LoadSettings settings) {
         this(new ScannerImpl(reader), settings);
@@ -144,11 +203,10 @@ public class ParserImpl implements Parser {
     public ParserImpl(Scanner scanner, LoadSettings settings) {
         this.scanner = scanner;
         this.settings = settings;
-        currentEvent = Optional.empty();
         directives = new VersionTagsTuple(Optional.empty(), new HashMap(DEFAULT_TAGS));
-        states = new ArrayStack(100);
+        states = new int[16];
         marksStack = new ArrayStack(10);
-        state = Optional.of(new ParseStreamStart());
+        state = PARSE_STREAM_START;
     }
 
     /**
@@ -156,149 +214,285 @@ public class ParserImpl implements Parser {
      */
     public boolean checkEvent(Event.ID choice) {
         peekEvent();
-        return currentEvent.isPresent() && currentEvent.get().getEventId() == choice;
+        return currentEvent != null && currentEvent.getEventId() == choice;
     }
 
     private void produce() {
-        if (!currentEvent.isPresent()) {
-            state.ifPresent(prod -> currentEvent = Optional.of(prod.produce()));
+        if (currentEvent == null && state != END) {
+            currentEvent = produceEvent();
+        }
+    }
+
+    private Event produceEvent() {
+        switch (state) {
+            case PARSE_STREAM_START:
+                return parseStreamStart();
+            case PARSE_IMPLICIT_DOCUMENT_START:
+                return parseImplicitDocumentStart();
+            case PARSE_DOCUMENT_START:
+                return parseDocumentStart();
+            case PARSE_DOCUMENT_END:
+                return parseDocumentEnd();
+            case PARSE_DOCUMENT_CONTENT:
+                return parseDocumentContent();
+            case PARSE_BLOCK_NODE:
+                return parseBlockNode();
+            case PARSE_BLOCK_SEQUENCE_FIRST_ENTRY:
+                return parseBlockSequenceFirstEntry();
+            case PARSE_BLOCK_SEQUENCE_ENTRY:
+                return parseBlockSequenceEntry();
+            case PARSE_INDENTLESS_SEQUENCE_ENTRY:
+                return parseIndentlessSequenceEntry();
+            case PARSE_BLOCK_MAPPING_FIRST_KEY:
+                return parseBlockMappingFirstKey();
+            case PARSE_BLOCK_MAPPING_KEY:
+                return parseBlockMappingKey();
+            case PARSE_BLOCK_MAPPING_VALUE:
+                return parseBlockMappingValue();
+            case PARSE_FLOW_SEQUENCE_FIRST_ENTRY:
+                return parseFlowSequenceFirstEntry();
+            case PARSE_FLOW_SEQUENCE_ENTRY_FIRST:
+                return parseFlowSequenceEntry(true);
+            case PARSE_FLOW_SEQUENCE_ENTRY:
+                return parseFlowSequenceEntry(false);
+            case PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_KEY:
+                return parseFlowSequenceEntryMappingKey();
+            case PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_VALUE:
+                return parseFlowSequenceEntryMappingValue();
+            case PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_END:
+                return parseFlowSequenceEntryMappingEnd();
+            case PARSE_FLOW_MAPPING_FIRST_KEY:
+                return parseFlowMappingFirstKey();
+            case PARSE_FLOW_MAPPING_KEY_FIRST:
+                return parseFlowMappingKey(true);
+            case PARSE_FLOW_MAPPING_KEY:
+                return parseFlowMappingKey(false);
+            case PARSE_FLOW_MAPPING_VALUE:
+                return parseFlowMappingValue();
+            case PARSE_FLOW_MAPPING_EMPTY_VALUE:
+                return parseFlowMappingEmptyValue();
+            default:
+                throw new IllegalStateException("Unexpected state: " + state);
         }
     }
 
+    private void pushState(int next) {
+        if (statesSize == states.length) {
+            states = Arrays.copyOf(states, statesSize * 2);
+        }
+        states[statesSize++] = next;
+    }
+
+    private int popState() {
+        return states[--statesSize];
+    }
+
     /**
      * Get the next event.
      */
     public Event peekEvent() {
         produce();
-        return currentEvent.orElseThrow(() -> new NoSuchElementException("No more Events found."));
+        if (currentEvent == null) {
+            throw new NoSuchElementException("No more Events found.");
+        }
+        return currentEvent;
     }
 
     /**
      * Get the next event and proceed further.
      */
     public Event next() {
-        peekEvent();
-        Event value = currentEvent.orElseThrow(() -> new NoSuchElementException("No more Events found."));
-        currentEvent = Optional.empty();
+        Event value = peekEvent();
+        currentEvent = null;
         return value;
     }
 
     @Override
     public boolean hasNext() {
         produce();
-        return currentEvent.isPresent();
+        return currentEvent != null;
     }
 
     /**
-     * <pre>
-     * stream    ::= STREAM-START implicit_document? explicit_document* STREAM-END
-     * implicit_document ::= block_node DOCUMENT-END*
-     * explicit_document ::= DIRECTIVE* DOCUMENT-START block_node? DOCUMENT-END*
-     * </pre>
+     * Skip the node which starts with the next event. The tokens of a collection are skipped
+     * in the scanner, no event is created for its content.
      */
-    private class ParseStreamStart implements Production {
-        public Event produce() {
-            // Parse the stream start.
-            StreamStartToken token = (StreamStartToken) scanner.next();
-            Event event = new StreamStartEvent(token.getStartMark(), token.getEndMark());
-            // Prepare the next state.
-            state = Optional.of(new ParseImplicitDocumentStart());
-            return event;
+    @Override
+    public void skipCurrentNode() {
+        Event event = peekEvent();
+        switch (event.getEventId()) {
+            case Scalar:
+            case Alias:
+                next();
+                return;
+            case SequenceStart:
+            case MappingStart:
+                currentEvent = null;
+                break;
+            default:
+                throw new IllegalStateException("The next event does not start a node: " + event.getEventId());
         }
-    }
-
-    private class ParseImplicitDocumentStart implements Production {
-        public Event produce() {
-            // Parse an implicit document.
-            if (!scanner.checkToken(Token.ID.Directive, Token.ID.DocumentStart, Token.ID.StreamEnd)) {
-                directives = new VersionTagsTuple(Optional.empty(), DEFAULT_TAGS);
-                Token token = scanner.peekToken();
-                Optional<Mark> startMark = token.getStartMark();
-                Optional<Mark> endMark = startMark;
-                Event event = new DocumentStartEvent(false, Optional.empty(), Collections.emptyMap(), startMark, endMark);
-                // Prepare the next state.
-                states.push(new ParseDocumentEnd());
-                state = Optional.of(new ParseBlockNode());
-                return event;
-            } else {
-                Production p = new ParseDocumentStart();
-                return p.produce();
+        if (state == PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_KEY) {
+            // single pair mapping in a flow sequence: KEY flow_node? (VALUE flow_node?)?
+            nextToken();
+            if (!checkToken(AFTER_FLOW_SEQUENCE_KEY)) {
+                skipNodeTokens();
             }
+            if (checkToken(Token.ID.Value)) {
+                nextToken();
+                if (!checkToken(AFTER_FLOW_SEQUENCE_VALUE)) {
+                    skipNodeTokens();
+                }
+            }
+            state = PARSE_FLOW_SEQUENCE_ENTRY;
+            return;
         }
+        if (state == PARSE_INDENTLESS_SEQUENCE_ENTRY) {
+            // indentless_sequence ::= (BLOCK-ENTRY block_node?)+
+            while (checkToken(Token.ID.BlockEntry)) {
+                nextToken();
+                if (!checkToken(AFTER_INDENTLESS_ENTRY)) {
+                    skipNodeTokens();
+                }
+            }
+        } else {
+            // the collection start token is not taken yet
+            scanner.skipCollection(nextToken());
+        }
+        state = popState();
     }
 
-    private class ParseDocumentStart implements Production {
-        public Event produce() {
-            // Parse any extra document end indicators.
-            while (scanner.checkToken(Token.ID.DocumentEnd)) {
-                scanner.next();
-            }
-            // Parse an explicit document.
-            Event event;
-            if (!scanner.checkToken(Token.ID.StreamEnd)) {
-                Token token = scanner.peekToken();
-                Optional<Mark> startMark = token.getStartMark();
-                VersionTagsTuple tuple = processDirectives();
-                if (!scanner.checkToken(Token.ID.DocumentStart)) {
-                    throw new ParserException("expected '<document start>', but found '"
-                            + scanner.peekToken().getTokenId() + "'", scanner.peekToken().getStartMark());
-                }
-                token = scanner.next();
-                Optional<Mark> endMark = token.getEndMark();
-                event = new DocumentStartEvent(true, tuple.getSpecVersion(), tuple.getTags(), startMark, endMark);
-                states.push(new ParseDocumentEnd());
-                state = Optional.of(new ParseDocumentContent());
-            } else {
-                // Parse the end of the stream.
-                StreamEndToken token = (StreamEndToken) scanner.next();
-                event = new StreamEndEvent(token.getStartMark(), token.getEndMark());
-                if (!states.isEmpty()) {
-                    throw new YamlEngineException("Unexpected end of stream. States left: " + states);
-                }
-                if (!markEmpty()) {
-                    throw new YamlEngineException("Unexpected end of stream. Marks left: " + marksStack);
-                }
-                state = Optional.empty();
+    /**
+     * Check the ID of the next token. The ID is kept, so the scanner is asked only once for every token.
+     * It is safe because the scanner does not change the next token until it is taken.
+     */
+    private boolean checkToken(long idMask) {
+        if (nextTokenId == null) {
+            if (!scanner.hasNext()) {
+                return false;
             }
-            return event;
+            nextTokenId = scanner.peekToken().getTokenId();
         }
+        return (nextTokenId.getMask() & idMask) != 0;
+    }
+
+    private boolean checkToken(Token.ID choice) {
+        return checkToken(choice.getMask());
+    }
 
-        private boolean markEmpty() {
-            return marksStack.isEmpty();
+    private Token nextToken() {
+        nextTokenId = null;
+        return scanner.next();
+    }
+
+    /**
+     * Skip the tokens of a node: the properties and a scalar, an alias or a collection
+     */
+    private void skipNodeTokens() {
+        while (checkToken(NODE_PROPERTIES)) {
+            nextToken();
         }
+        if (checkToken(SCALAR_OR_ALIAS)) {
+            nextToken();
+        } else if (checkToken(COLLECTION_START)) {
+            scanner.skipCollection(nextToken());
+        }
+    }
+
+    /**
+     * <pre>
+     * stream    ::= STREAM-START implicit_document? explicit_document* STREAM-END
+     * implicit_document ::= block_node DOCUMENT-END*
+     * explicit_document ::= DIRECTIVE* DOCUMENT-START block_node? DOCUMENT-END*
+     * </pre>
+     */
+    private Event parseStreamStart() {
+        // Parse the stream start.
+        StreamStartToken token = (StreamStartToken) nextToken();
+        Event event = createStreamStartEvent(token.getStartMark(), token.getEndMark());
+        // Prepare the next state.
+        state = PARSE_IMPLICIT_DOCUMENT_START;
+        return event;
     }
 
-    private class ParseDocumentEnd implements Production {
-        public Event produce() {
-            // Parse the document end.
+    private Event parseImplicitDocumentStart() {
+        // Parse an implicit document.
+        if (!checkToken(EXPLICIT_DOCUMENT)) {
+            directives = new VersionTagsTuple(Optional.empty(), DEFAULT_TAGS);
             Token token = scanner.peekToken();
             Optional<Mark> startMark = token.getStartMark();
             Optional<Mark> endMark = startMark;
-            boolean explicit = false;
-            if (scanner.checkToken(Token.ID.DocumentEnd)) {
-                token = scanner.next();
-                endMark = token.getEndMark();
-                explicit = true;
-            }
-            Event event = new DocumentEndEvent(explicit, startMark, endMark);
+            Event event = createDocumentStartEvent(false, Optional.empty(), Collections.emptyMap(), startMark, endMark);
             // Prepare the next state.
-            state = Optional.of(new ParseDocumentStart());
+            pushState(PARSE_DOCUMENT_END);
+            state = PARSE_BLOCK_NODE;
             return event;
+        } else {
+            return parseDocumentStart();
         }
     }
 
-    private class ParseDocumentContent implements Production {
-        public Event produce() {
-            Event event;
-            if (scanner.checkToken(Token.ID.Directive, Token.ID.DocumentStart,
-                    Token.ID.DocumentEnd, Token.ID.StreamEnd)) {
-                event = processEmptyScalar(scanner.peekToken().getStartMark());
-                state = Optional.of(states.pop());
-                return event;
-            } else {
-                Production p = new ParseBlockNode();
-                return p.produce();
+    private Event parseDocumentStart() {
+        // Parse any extra document end indicators.
+        while (checkToken(Token.ID.DocumentEnd)) {
+            nextToken();
+        }
+        // Parse an explicit document.
+        Event event;
+        if (!checkToken(Token.ID.StreamEnd)) {
+            Token token = scanner.peekToken();
+            Optional<Mark> startMark = token.getStartMark();
+            VersionTagsTuple tuple = processDirectives();
+            if (!checkToken(Token.ID.DocumentStart)) {
+                throw new ParserException("expected '<document start>', but found '"
+                        + scanner.peekToken().getTokenId() + "'", scanner.peekToken().getStartMark());
             }
+            token = nextToken();
+            Optional<Mark> endMark = token.getEndMark();
+            event = createDocumentStartEvent(true, tuple.getSpecVersion(), tuple.getTags(), startMark, endMark);
+            pushState(PARSE_DOCUMENT_END);
+            state = PARSE_DOCUMENT_CONTENT;
+        } else {
+            // Parse the end of the stream.
+            StreamEndToken token = (StreamEndToken) nextToken();
+            event = createStreamEndEvent(token.getStartMark(), token.getEndMark());
+            if (statesSize > 0) {
+                throw new YamlEngineException("Unexpected end of stream. States left: "
+                        + Arrays.toString(Arrays.copyOf(states, statesSize)));
+            }
+            if (!marksStack.isEmpty()) {
+                throw new YamlEngineException("Unexpected end of stream. Marks left: " + marksStack);
+            }
+            state = END;
+        }
+        return event;
+    }
+
+    private Event parseDocumentEnd() {
+        // Parse the document end.
+        Token token = scanner.peekToken();
+        Optional<Mark> startMark = token.getStartMark();
+        Optional<Mark> endMark = startMark;
+        boolean explicit = false;
+        if (checkToken(Token.ID.DocumentEnd)) {
+            token = nextToken();
+            endMark = token.getEndMark();
+            explicit = true;
+        }
+        Event event = createDocumentEndEvent(explicit, startMark, endMark);
+        // Prepare the next state.
+        state = PARSE_DOCUMENT_START;
+        return event;
+    }
+
+    private Event parseDocumentContent() {
+        Event event;
+        if (checkToken(EMPTY_DOCUMENT)) {
+            event = processEmptyScalar(scanner.peekToken().getStartMark());
+            state = popState();
+            return event;
+        } else {
+            return parseBlockNode();
         }
     }
 
@@ -306,9 +500,9 @@ public class ParserImpl implements Parser {
     private VersionTagsTuple processDirectives() {
         Optional<SpecVersion> yamlSpecVersion = Optional.empty();
         HashMap<String, String> tagHandles = new HashMap<>();
-        while (scanner.checkToken(Token.ID.Directive)) {
+        while (checkToken(Token.ID.Directive)) {
             @SuppressWarnings("rawtypes")
-            DirectiveToken token = (DirectiveToken) scanner.next();
+            DirectiveToken token = (DirectiveToken) nextToken();
             Optional<List<?>> dirOption = token.getValue();
             if (dirOption.isPresent()) {
                 //the value must be present
@@ -366,10 +560,8 @@ public class ParserImpl implements Parser {
      * </pre>
      */
 
-    private class ParseBlockNode implements Production {
-        public Event produce() {
-            return parseNode(true, false);
-        }
+    private Event parseBlockNode() {
+        return parseNode(true, false);
     }
 
     private Event parseFlowNode() {
@@ -385,37 +577,38 @@ public class ParserImpl implements Parser {
         Optional<Mark> startMark = Optional.empty();
         Optional<Mark> endMark = Optional.empty();
         Optional<Mark> tagMark = Optional.empty();
-        if (scanner.checkToken(Token.ID.Alias)) {
-            AliasToken token = (AliasToken) scanner.next();
-            event = new AliasEvent(Optional.of(token.getValue()), token.getStartMark(), token.getEndMark());
-            state = Optional.of(states.pop());
+        if (checkToken(Token.ID.Alias)) {
+            AliasToken token = (AliasToken) nextToken();
+            event = createAliasEvent(token.getValue(), token.getStartMark(), token.getEndMark());
+            state = popState();
         } else {
-            Optional<Anchor> anchor = Optional.empty();
+            // the anchor and the tag are null when they are not present, Optional is created only for the event
+            Anchor anchor = null;
             TagTuple tagTupleValue = null;
-            if (scanner.checkToken(Token.ID.Anchor)) {
-                AnchorToken token = (AnchorToken) scanner.next();
+            if (checkToken(Token.ID.Anchor)) {
+                AnchorToken token = (AnchorToken) nextToken();
                 startMark = token.getStartMark();
                 endMark = token.getEndMark();
-                anchor = Optional.of(token.getValue());
-                if (scanner.checkToken(Token.ID.Tag)) {
-                    TagToken tagToken = (TagToken) scanner.next();
+                anchor = token.getValue();
+                if (checkToken(Token.ID.Tag)) {
+                    TagToken tagToken = (TagToken) nextToken();
                     tagMark = tagToken.getStartMark();
                     endMark = tagToken.getEndMark();
                     tagTupleValue = tagToken.getValue();
                 }
-            } else if (scanner.checkToken(Token.ID.Tag)) {
-                TagToken tagToken = (TagToken) scanner.next();
+            } else if (checkToken(Token.ID.Tag)) {
+                TagToken tagToken = (TagToken) nextToken();
                 startMark = tagToken.getStartMark();
                 tagMark = startMark;
                 endMark = tagToken.getEndMark();
                 tagTupleValue = tagToken.getValue();
-                if (scanner.checkToken(Token.ID.Anchor)) {
-                    AnchorToken token = (AnchorToken) scanner.next();
+                if (checkToken(Token.ID.Anchor)) {
+                    AnchorToken token = (AnchorToken) nextToken();
                     endMark = token.getEndMark();
-                    anchor = Optional.of(token.getValue());
+                    anchor = token.getValue();
                 }
             }
-            Optional<String> tag = Optional.empty();
+            String tag = null;
             if (tagTupleValue != null) {
                 String handle = tagTupleValue.getHandle();
                 String suffix = tagTupleValue.getSuffix();
@@ -424,58 +617,52 @@ public class ParserImpl implements Parser {
                         throw new ParserException("while parsing a node", startMark,
                                 "found undefined tag handle " + handle, tagMark);
                     }
-                    tag = Optional.of(directives.getTags().get(handle) + suffix);
+                    tag = resolveTag(handle, suffix);
                 } else {
-                    tag = Optional.of(suffix);
+                    tag = suffix;
                 }
             }
             if (!startMark.isPresent()) {
                 startMark = scanner.peekToken().getStartMark();
                 endMark = startMark;
             }
-            boolean implicit = (!tag.isPresent() /* TODO issue 459 || tag.equals("!") */);
-            if (indentlessSequence && scanner.checkToken(Token.ID.BlockEntry)) {
+            boolean implicit = (tag == null /* TODO issue 459 || tag.equals("!") */);
+            if (indentlessSequence && checkToken(Token.ID.BlockEntry)) {
                 endMark = scanner.peekToken().getEndMark();
-                event = new SequenceStartEvent(anchor, tag, implicit, FlowStyle.BLOCK, startMark, endMark);
-                state = Optional.of(new ParseIndentlessSequenceEntry());
+                event = createSequenceStartEvent(anchor, tag, implicit, FlowStyle.BLOCK, startMark, endMark);
+                state = PARSE_INDENTLESS_SEQUENCE_ENTRY;
             } else {
-                if (scanner.checkToken(Token.ID.Scalar)) {
-                    ScalarToken token = (ScalarToken) scanner.next();
+                if (checkToken(Token.ID.Scalar)) {
+                    ScalarToken token = (ScalarToken) nextToken();
                     endMark = token.getEndMark();
-                    ImplicitTuple implicitValues;
-                    if ((token.isPlain() && !tag.isPresent()) /* TODO issue 459 || "!".equals(tag)*/) {
-                        implicitValues = new ImplicitTuple(true, false);
-                    } else if (!tag.isPresent()) {
-                        implicitValues = new ImplicitTuple(false, true);
-                    } else {
-                        implicitValues = new ImplicitTuple(false, false);
-                    }
-                    event = new ScalarEvent(anchor, tag, implicitValues, token.getValue(), token.getStyle(),
-                            startMark, endMark);
-                    state = Optional.of(states.pop());
-                } else if (scanner.checkToken(Token.ID.FlowSequenceStart)) {
+                    // implicit=[true, false] for a plain scalar without a tag, [false, true] for another one
+                    boolean plainImplicit = token.isPlain() && tag == null; /* TODO issue 459 || "!".equals(tag)*/
+                    event = createScalarEvent(anchor, tag, plainImplicit, !plainImplicit && tag == null,
+                            token.getCharSequence(), token.getStyle(), startMark, endMark);
+                    state = popState();
+                } else if (checkToken(Token.ID.FlowSequenceStart)) {
                     endMark = scanner.peekToken().getEndMark();
-                    event = new SequenceStartEvent(anchor, tag, implicit, FlowStyle.FLOW, startMark, endMark);
-                    state = Optional.of(new ParseFlowSequenceFirstEntry());
-                } else if (scanner.checkToken(Token.ID.FlowMappingStart)) {
+                    event = createSequenceStartEvent(anchor, tag, implicit, FlowStyle.FLOW, startMark, endMark);
+                    state = PARSE_FLOW_SEQUENCE_FIRST_ENTRY;
+                } else if (checkToken(Token.ID.FlowMappingStart)) {
                     endMark = scanner.peekToken().getEndMark();
-                    event = new MappingStartEvent(anchor, tag, implicit,
+                    event = createMappingStartEvent(anchor, tag, implicit,
                             FlowStyle.FLOW, startMark, endMark);
-                    state = Optional.of(new ParseFlowMappingFirstKey());
-                } else if (block && scanner.checkToken(Token.ID.BlockSequenceStart)) {
+                    state = PARSE_FLOW_MAPPING_FIRST_KEY;
+                } else if (block && checkToken(Token.ID.BlockSequenceStart)) {
                     endMark = scanner.peekToken().getStartMark();
-                    event = new SequenceStartEvent(anchor, tag, implicit, FlowStyle.BLOCK, startMark, endMark);
-                    state = Optional.of(new ParseBlockSequenceFirstEntry());
-                } else if (block && scanner.checkToken(Token.ID.BlockMappingStart)) {
+                    event = createSequenceStartEvent(anchor, tag, implicit, FlowStyle.BLOCK, startMark, endMark);
+                    state = PARSE_BLOCK_SEQUENCE_FIRST_ENTRY;
+                } else if (block && checkToken(Token.ID.BlockMappingStart)) {
                     endMark = scanner.peekToken().getStartMark();
-                    event = new MappingStartEvent(anchor, tag, implicit,
+                    event = createMappingStartEvent(anchor, tag, implicit,
                             FlowStyle.BLOCK, startMark, endMark);
-                    state = Optional.of(new ParseBlockMappingFirstKey());
-                } else if (anchor.isPresent() || tag.isPresent()) {
+                    state = PARSE_BLOCK_MAPPING_FIRST_KEY;
+                } else if (anchor != null || tag != null) {
                     // Empty scalars are allowed even if a tag or an anchor is specified.
-                    event = new ScalarEvent(anchor, tag, new ImplicitTuple(implicit, false), "", ScalarStyle.PLAIN,
+                    event = createScalarEvent(anchor, tag, implicit, false, "", ScalarStyle.PLAIN,
                             startMark, endMark);
-                    state = Optional.of(states.pop());
+                    state = popState();
                 } else {
                     String node;
                     if (block) {
@@ -496,112 +683,99 @@ public class ParserImpl implements Parser {
     // block_sequence ::= BLOCK-SEQUENCE-START (BLOCK-ENTRY block_node?)*
     // BLOCK-END
 
-    private class ParseBlockSequenceFirstEntry implements Production {
-        public Event produce() {
-            Token token = scanner.next();
-            markPush(token.getStartMark());
-            return new ParseBlockSequenceEntry().produce();
-        }
+    private Event parseBlockSequenceFirstEntry() {
+        Token token = nextToken();
+        markPush(token.getStartMark());
+        return parseBlockSequenceEntry();
     }
 
-    private class ParseBlockSequenceEntry implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.BlockEntry)) {
-                BlockEntryToken token = (BlockEntryToken) scanner.next();
-                if (!scanner.checkToken(Token.ID.BlockEntry, Token.ID.BlockEnd)) {
-                    states.push(new ParseBlockSequenceEntry());
-                    return new ParseBlockNode().produce();
-                } else {
-                    state = Optional.of(new ParseBlockSequenceEntry());
-                    return processEmptyScalar(token.getEndMark());
-                }
-            }
-            if (!scanner.checkToken(Token.ID.BlockEnd)) {
-                Token token = scanner.peekToken();
-                throw new ParserException("while parsing a block collection", markPop(),
-                        "expected <block end>, but found '" + token.getTokenId() + "'",
-                        token.getStartMark());
+    private Event parseBlockSequenceEntry() {
+        if (checkToken(Token.ID.BlockEntry)) {
+            BlockEntryToken token = (BlockEntryToken) nextToken();
+            if (!checkToken(AFTER_BLOCK_ENTRY)) {
+                pushState(PARSE_BLOCK_SEQUENCE_ENTRY);
+                return parseBlockNode();
+            } else {
+                state = PARSE_BLOCK_SEQUENCE_ENTRY;
+                return processEmptyScalar(token.getEndMark());
             }
-            Token token = scanner.next();
-            Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
-            state = Optional.of(states.pop());
-            markPop();
-            return event;
         }
+        if (!checkToken(Token.ID.BlockEnd)) {
+            Token token = scanner.peekToken();
+            throw new ParserException("while parsing a block collection", markPop(),
+                    "expected <block end>, but found '" + token.getTokenId() + "'",
+                    token.getStartMark());
+        }
+        Token token = nextToken();
+        Event event = createSequenceEndEvent(token.getStartMark(), token.getEndMark());
+        state = popState();
+        markPop();
+        return event;
     }
 
     // indentless_sequence ::= (BLOCK-ENTRY block_node?)+
 
-    private class ParseIndentlessSequenceEntry implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.BlockEntry)) {
-                Token token = scanner.next();
-                if (!scanner.checkToken(Token.ID.BlockEntry, Token.ID.Key, Token.ID.Value,
-                        Token.ID.BlockEnd)) {
-                    states.push(new ParseIndentlessSequenceEntry());
-                    return new ParseBlockNode().produce();
-                } else {
-                    state = Optional.of(new ParseIndentlessSequenceEntry());
-                    return processEmptyScalar(token.getEndMark());
-                }
+    private Event parseIndentlessSequenceEntry() {
+        if (checkToken(Token.ID.BlockEntry)) {
+            Token token = nextToken();
+            if (!checkToken(AFTER_INDENTLESS_ENTRY)) {
+                pushState(PARSE_INDENTLESS_SEQUENCE_ENTRY);
+                return parseBlockNode();
+            } else {
+                state = PARSE_INDENTLESS_SEQUENCE_ENTRY;
+                return processEmptyScalar(token.getEndMark());
             }
-            Token token = scanner.peekToken();
-            Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
-            state = Optional.of(states.pop());
-            return event;
         }
+        Token token = scanner.peekToken();
+        Event event = createSequenceEndEvent(token.getStartMark(), token.getEndMark());
+        state = popState();
+        return event;
     }
 
-    private class ParseBlockMappingFirstKey implements Production {
-        public Event produce() {
-            Token token = scanner.next();
-            markPush(token.getStartMark());
-            return new ParseBlockMappingKey().produce();
-        }
+    private Event parseBlockMappingFirstKey() {
+        Token token = nextToken();
+        markPush(token.getStartMark());
+        return parseBlockMappingKey();
     }
 
-    private class ParseBlockMappingKey implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Key)) {
-                Token token = scanner.next();
-                if (!scanner.checkToken(Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd)) {
-                    states.push(new ParseBlockMappingValue());
-                    return parseBlockNodeOrIndentlessSequence();
-                } else {
-                    state = Optional.of(new ParseBlockMappingValue());
-                    return processEmptyScalar(token.getEndMark());
-                }
-            }
-            if (!scanner.checkToken(Token.ID.BlockEnd)) {
-                Token token = scanner.peekToken();
-                throw new ParserException("while parsing a block mapping", markPop(),
-                        "expected <block end>, but found '" + token.getTokenId() + "'",
-                        token.getStartMark());
+    private Event parseBlockMappingKey() {
+        if (checkToken(Token.ID.Key)) {
+            Token token = nextToken();
+            if (!checkToken(AFTER_BLOCK_MAPPING_ENTRY)) {
+                pushState(PARSE_BLOCK_MAPPING_VALUE);
+                return parseBlockNodeOrIndentlessSequence();
+            } else {
+                state = PARSE_BLOCK_MAPPING_VALUE;
+                return processEmptyScalar(token.getEndMark());
             }
-            Token token = scanner.next();
-            Event event = new MappingEndEvent(token.getStartMark(), token.getEndMark());
-            state = Optional.of(states.pop());
-            markPop();
-            return event;
         }
+        if (!checkToken(Token.ID.BlockEnd)) {
+            Token token = scanner.peekToken();
+            throw new ParserException("while parsing a block mapping", markPop(),
+                    "expected <block end>, but found '" + token.getTokenId() + "'",
+                    token.getStartMark());
+        }
+        Token token = nextToken();
+        Event event = createMappingEndEvent(token.getStartMark(), token.getEndMark());
+        state = popState();
+        markPop();
+        return event;
     }
 
-    private class ParseBlockMappingValue implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Value)) {
-                Token token = scanner.next();
-                if (!scanner.checkToken(Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd)) {
-                    states.push(new ParseBlockMappingKey());
-                    return parseBlockNodeOrIndentlessSequence();
-                } else {
-                    state = Optional.of(new ParseBlockMappingKey());
-                    return processEmptyScalar(token.getEndMark());
-                }
+    private Event parseBlockMappingValue() {
+        if (checkToken(Token.ID.Value)) {
+            Token token = nextToken();
+            if (!checkToken(AFTER_BLOCK_MAPPING_ENTRY)) {
+                pushState(PARSE_BLOCK_MAPPING_KEY);
+                return parseBlockNodeOrIndentlessSequence();
+            } else {
+                state = PARSE_BLOCK_MAPPING_KEY;
+                return processEmptyScalar(token.getEndMark());
             }
-            state = Optional.of(new ParseBlockMappingKey());
-            Token token = scanner.peekToken();
-            return processEmptyScalar(token.getStartMark());
         }
+        state = PARSE_BLOCK_MAPPING_KEY;
+        Token token = scanner.peekToken();
+        return processEmptyScalar(token.getStartMark());
     }
 
     /**
@@ -617,90 +791,74 @@ public class ParserImpl implements Parser {
      * generate an inline mapping (set syntax).
      * </pre>
      */
-    private class ParseFlowSequenceFirstEntry implements Production {
-        public Event produce() {
-            Token token = scanner.next();
-            markPush(token.getStartMark());
-            return new ParseFlowSequenceEntry(true).produce();
-        }
+    private Event parseFlowSequenceFirstEntry() {
+        Token token = nextToken();
+        markPush(token.getStartMark());
+        return parseFlowSequenceEntry(true);
     }
 
-    private class ParseFlowSequenceEntry implements Production {
-        private final boolean first;
-
-        public ParseFlowSequenceEntry(boolean first) {
-            this.first = first;
-        }
-
-        public Event produce() {
-            if (!scanner.checkToken(Token.ID.FlowSequenceEnd)) {
-                if (!first) {
-                    if (scanner.checkToken(Token.ID.FlowEntry)) {
-                        scanner.next();
-                    } else {
-                        Token token = scanner.peekToken();
-                        throw new ParserException("while parsing a flow sequence", markPop(),
-                                "expected ',' or ']', but got " + token.getTokenId(),
-                                token.getStartMark());
-                    }
-                }
-                if (scanner.checkToken(Token.ID.Key)) {
+    private Event parseFlowSequenceEntry(boolean first) {
+        if (!checkToken(Token.ID.FlowSequenceEnd)) {
+            if (!first) {
+                if (checkToken(Token.ID.FlowEntry)) {
+                    nextToken();
+                } else {
                     Token token = scanner.peekToken();
-                    Event event = new MappingStartEvent(Optional.empty(), Optional.empty(), true, FlowStyle.FLOW, token.getStartMark(),
-                            token.getEndMark());
-                    state = Optional.of(new ParseFlowSequenceEntryMappingKey());
-                    return event;
-                } else if (!scanner.checkToken(Token.ID.FlowSequenceEnd)) {
-                    states.push(new ParseFlowSequenceEntry(false));
-                    return parseFlowNode();
+                    throw new ParserException("while parsing a flow sequence", markPop(),
+                            "expected ',' or ']', but got " + token.getTokenId(),
+                            token.getStartMark());
                 }
             }
-            Token token = scanner.next();
-            Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
-            state = Optional.of(states.pop());
-            markPop();
-            return event;
+            if (checkToken(Token.ID.Key)) {
+                Token token = scanner.peekToken();
+                Event event = createMappingStartEvent(null, null, true, FlowStyle.FLOW, token.getStartMark(),
+                        token.getEndMark());
+                state = PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_KEY;
+                return event;
+            } else if (!checkToken(Token.ID.FlowSequenceEnd)) {
+                pushState(PARSE_FLOW_SEQUENCE_ENTRY);
+                return parseFlowNode();
+            }
         }
+        Token token = nextToken();
+        Event event = createSequenceEndEvent(token.getStartMark(), token.getEndMark());
+        state = popState();
+        markPop();
+        return event;
     }
 
-    private class ParseFlowSequenceEntryMappingKey implements Production {
-        public Event produce() {
-            Token token = scanner.next();
-            if (!scanner.checkToken(Token.ID.Value, Token.ID.FlowEntry, Token.ID.FlowSequenceEnd)) {
-                states.push(new ParseFlowSequenceEntryMappingValue());
-                return parseFlowNode();
-            } else {
-                state = Optional.of(new ParseFlowSequenceEntryMappingValue());
-                return processEmptyScalar(token.getEndMark());
-            }
+    private Event parseFlowSequenceEntryMappingKey() {
+        Token token = nextToken();
+        if (!checkToken(AFTER_FLOW_SEQUENCE_KEY)) {
+            pushState(PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_VALUE);
+            return parseFlowNode();
+        } else {
+            state = PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_VALUE;
+            return processEmptyScalar(token.getEndMark());
         }
     }
 
-    private class ParseFlowSequenceEntryMappingValue implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Value)) {
-                Token token = scanner.next();
-                if (!scanner.checkToken(Token.ID.FlowEntry, Token.ID.FlowSequenceEnd)) {
-                    states.push(new ParseFlowSequenceEntryMappingEnd());
-                    return parseFlowNode();
-                } else {
-                    state = Optional.of(new ParseFlowSequenceEntryMappingEnd());
-                    return processEmptyScalar(token.getEndMark());
-                }
+    private Event parseFlowSequenceEntryMappingValue() {
+        if (checkToken(Token.ID.Value)) {
+            Token token = nextToken();
+            if (!checkToken(AFTER_FLOW_SEQUENCE_VALUE)) {
+                pushState(PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_END);
+                return parseFlowNode();
             } else {
-                state = Optional.of(new ParseFlowSequenceEntryMappingEnd());
-                Token token = scanner.peekToken();
-                return processEmptyScalar(token.getStartMark());
+                state = PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_END;
+                return processEmptyScalar(token.getEndMark());
             }
+        } else {
+            state = PARSE_FLOW_SEQUENCE_ENTRY_MAPPING_END;
+            Token token = scanner.peekToken();
+            return processEmptyScalar(token.getStartMark());
         }
     }
 
-    private class ParseFlowSequenceEntryMappingEnd implements Production {
-        public Event produce() {
-            state = Optional.of(new ParseFlowSequenceEntry(false));
-            Token token = scanner.peekToken();
-            return new MappingEndEvent(token.getStartMark(), token.getEndMark());
-        }
+    private Event parseFlowSequenceEntryMappingEnd() {
+        state = PARSE_FLOW_SEQUENCE_ENTRY;
+        Token token = scanner.peekToken();
+        return createMappingEndEvent(token.getStartMark(), token.getEndMark());
     }
 
     /**
@@ -712,80 +870,65 @@ public class ParserImpl implements Parser {
      *   flow_mapping_entry    ::= flow_node | KEY flow_node? (VALUE flow_node?)?
      * </pre>
      */
-    private class ParseFlowMappingFirstKey implements Production {
-        public Event produce() {
-            Token token = scanner.next();
-            markPush(token.getStartMark());
-            return new ParseFlowMappingKey(true).produce();
-        }
+    private Event parseFlowMappingFirstKey() {
+        Token token = nextToken();
+        markPush(token.getStartMark());
+        return parseFlowMappingKey(true);
     }
 
-    private class ParseFlowMappingKey implements Production {
-        private final boolean first;
-
-        public ParseFlowMappingKey(boolean first) {
-            this.first = first;
-        }
-
-        public Event produce() {
-            if (!scanner.checkToken(Token.ID.FlowMappingEnd)) {
-                if (!first) {
-                    if (scanner.checkToken(Token.ID.FlowEntry)) {
-                        scanner.next();
-                    } else {
-                        Token token = scanner.peekToken();
-                        throw new ParserException("while parsing a flow mapping", markPop(),
-                                "expected ',' or '}', but got " + token.getTokenId(),
-                                token.getStartMark());
-                    }
+    private Event parseFlowMappingKey(boolean first) {
+        if (!checkToken(Token.ID.FlowMappingEnd)) {
+            if (!first) {
+                if (checkToken(Token.ID.FlowEntry)) {
+                    nextToken();
+                } else {
+                    Token token = scanner.peekToken();
+                    throw new ParserException("while parsing a flow mapping", markPop(),
+                            "expected ',' or '}', but got " + token.getTokenId(),
+                            token.getStartMark());
                 }
-                if (scanner.checkToken(Token.ID.Key)) {
-                    Token token = scanner.next();
-                    if (!scanner.checkToken(Token.ID.Value, Token.ID.FlowEntry,
-                            Token.ID.FlowMappingEnd)) {
-                        states.push(new ParseFlowMappingValue());
-                        return parseFlowNode();
-                    } else {
-                        state = Optional.of(new ParseFlowMappingValue());
-                        return processEmptyScalar(token.getEndMark());
-                    }
-                } else if (!scanner.checkToken(Token.ID.FlowMappingEnd)) {
-                    states.push(new ParseFlowMappingEmptyValue());
+            }
+            if (checkToken(Token.ID.Key)) {
+                Token token = nextToken();
+                if (!checkToken(AFTER_FLOW_MAPPING_KEY)) {
+                    pushState(PARSE_FLOW_MAPPING_VALUE);
                     return parseFlowNode();
+                } else {
+                    state = PARSE_FLOW_MAPPING_VALUE;
+                    return processEmptyScalar(token.getEndMark());
                 }
+            } else if (!checkToken(Token.ID.FlowMappingEnd)) {
+                pushState(PARSE_FLOW_MAPPING_EMPTY_VALUE);
+                return parseFlowNode();
             }
-            Token token = scanner.next();
-            Event event = new MappingEndEvent(token.getStartMark(), token.getEndMark());
-            state = Optional.of(states.pop());
-            markPop();
-            return event;
         }
+        Token token = nextToken();
+        Event event = createMappingEndEvent(token.getStartMark(), token.getEndMark());
+        state = popState();
+        markPop();
+        return event;
     }
 
-    private class ParseFlowMappingValue implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Value)) {
-                Token token = scanner.next();
-                if (!scanner.checkToken(Token.ID.FlowEntry, Token.ID.FlowMappingEnd)) {
-                    states.push(new ParseFlowMappingKey(false));
-                    return parseFlowNode();
-                } else {
-                    state = Optional.of(new ParseFlowMappingKey(false));
-                    return processEmptyScalar(token.getEndMark());
-                }
+    private Event parseFlowMappingValue() {
+        if (checkToken(Token.ID.Value)) {
+            Token token = nextToken();
+            if (!checkToken(AFTER_FLOW_MAPPING_VALUE)) {
+                pushState(PARSE_FLOW_MAPPING_KEY);
+                return parseFlowNode();
             } else {
-                state = Optional.of(new ParseFlowMappingKey(false));
-                Token token = scanner.peekToken();
-                return processEmptyScalar(token.getStartMark());
+                state = PARSE_FLOW_MAPPING_KEY;
+                return processEmptyScalar(token.getEndMark());
             }
+        } else {
+            state = PARSE_FLOW_MAPPING_KEY;
+            Token token = scanner.peekToken();
+            return processEmptyScalar(token.getStartMark());
         }
     }
 
-    private class ParseFlowMappingEmptyValue implements Production {
-        public Event produce() {
-            state = Optional.of(new ParseFlowMappingKey(false));
-            return processEmptyScalar(scanner.peekToken().getStartMark());
-        }
+    private Event parseFlowMappingEmptyValue() {
+        state = PARSE_FLOW_MAPPING_KEY;
+        return processEmptyScalar(scanner.peekToken().getStartMark());
     }
 
     /**
@@ -797,7 +940,88 @@ public class ParserImpl implements Parser {
      * </pre>
      */
     private Event processEmptyScalar(Optional<Mark> mark) {
-        return new ScalarEvent(Optional.empty(), Optional.empty(), new ImplicitTuple(true, false), "", ScalarStyle.PLAIN, mark, mark);
+        return createScalarEvent(null, null, true, false, "", ScalarStyle.PLAIN, mark, mark);
+    }
+
+    /**
+     * Resolve the tag with the prefix of the handle. The same String is returned for the same tag
+     * (up to a limit), so it is not concatenated for every node.
+     */
+    private String resolveTag(String handle, String suffix) {
+        Map<String, String> tags = directives.getTags();
+        if (tags != resolvedTagsFor) {
+            if (!tags.equals(resolvedTagsFor)) {
+                resolvedTags.clear();
+            }
+            resolvedTagsFor = tags;
+        }
+        Map<String, String> suffixes = resolvedTags.computeIfAbsent(handle, h -> new HashMap<>());
+        String tag = suffixes.get(suffix);
+        if (tag == null) {
+            tag = tags.get(handle) + suffix;
+            if (suffixes.size() < RESOLVED_TAGS_LIMIT && suffix.length() <= RESOLVED_TAG_MAX_LENGTH) {
+                suffixes.put(suffix, tag);
+            }
+        }
+        return tag;
+    }
+
+    // The events are created only by the following methods. They are overridden by YamlCursor,
+    // which keeps the data of the event instead of creating it. The anchors and the tags are null
+    // when they are not present.
+
+    Event createStreamStartEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new StreamStartEvent(startMark, endMark);
+    }
+
+    Event createStreamEndEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new StreamEndEvent(startMark, endMark);
+    }
+
+    Event createDocumentStartEvent(boolean explicit, Optional<SpecVersion> specVersion, Map<String, String> tags,
+                                   Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new DocumentStartEvent(explicit, specVersion, tags, startMark, endMark);
+    }
+
+    Event createDocumentEndEvent(boolean explicit, Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new DocumentEndEvent(explicit, startMark, endMark);
+    }
+
+    Event createAliasEvent(Anchor anchor, Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new AliasEvent(Optional.of(anchor), startMark, endMark);
+    }
+
+    Event createScalarEvent(Anchor anchor, String tag, boolean plainImplicit,
+                            boolean nonPlainImplicit, CharSequence value, ScalarStyle style,
+                            Optional<Mark> startMark, Optional<Mark> endMark) {
+        ImplicitTuple implicit;
+        if (plainImplicit) {
+            implicit = nonPlainImplicit ? IMPLICIT_BOTH : IMPLICIT_PLAIN;
+        } else {
+            implicit = nonPlainImplicit ? IMPLICIT_NON_PLAIN : IMPLICIT_NONE;
+        }
+        return new ScalarEvent(Optional.ofNullable(anchor), Optional.ofNullable(tag), implicit, value, style,
+                startMark, endMark);
+    }
+
+    Event createSequenceStartEvent(Anchor anchor, String tag, boolean implicit, FlowStyle flowStyle,
+                                   Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new SequenceStartEvent(Optional.ofNullable(anchor), Optional.ofNullable(tag), implicit, flowStyle,
+                startMark, endMark);
+    }
+
+    Event createSequenceEndEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new SequenceEndEvent(startMark, endMark);
+    }
+
+    Event createMappingStartEvent(Anchor anchor, String tag, boolean implicit, FlowStyle flowStyle,
+                                  Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new MappingStartEvent(Optional.ofNullable(anchor), Optional.ofNullable(tag), implicit, flowStyle,
+                startMark, endMark);
+    }
+
+    Event createMappingEndEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+        return new MappingEndEvent(startMark, endMark);
     }
 
     private Optional<Mark> markPop() {
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The paths of the nodes which are selected by {@link PathFilterParser}. A path is a list of steps
+ * from the root node: a key of a mapping ('.' separated) or an index of a sequence ('[n]').
+ * The wildcards match any key ('*') and any index ('[*]'), for instance
+ * <code>spec.containers[*].image</code> or <code>metadata.labels</code>.
+ * Only the scalar keys are matched, a key cannot contain '.' or '['.
+ */
+public final class PathFilter {
+
+    private static final String ANY_KEY = "*";
+    private static final int ANY_INDEX = -1;
+
+    // the steps of every path: a String for a key or an Integer for an index
+    private final Object[][] paths;
+    private final boolean keepStructure;
+
+    /**
+     * Create
+     *
+     * @param paths         - the paths of the selected nodes
+     * @param keepStructure - true to keep the collections which contain the selected nodes (with the keys),
+     *                      false to provide only the selected nodes as the items of a sequence
+     * @throws IllegalArgumentException if a path is invalid
+     */
+    public PathFilter(Collection<String> paths, boolean keepStructure) {
+        Objects.requireNonNull(paths, "paths cannot be null");
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("At least one path must be provided.");
+        }
+        this.paths = new Object[paths.size()][];
+        int i = 0;
+        for (String path : paths) {
+            this.paths[i++] = parsePath(path);
+        }
+        this.keepStructure = keepStructure;
+    }
+
+    public boolean isKeepStructure() {
+        return keepStructure;
+    }
+
+    private static Object[] parsePath(String path) {
+        Objects.requireNonNull(path, "path cannot be null");
+        List<Object> steps = new ArrayList<>();
+        int i = 0;
+        boolean keyExpected = true;
+        while (i < path.length()) {
+            if (path.charAt(i) == '[') {
+                int end = path.indexOf(']', i);
+                if (end < 0 || (i > 0 && path.charAt(i - 1) == '.')) {
+                    throw invalidPath(path);
+                }
+                steps.add(parseIndex(path, path.substring(i + 1, end)));
+                i = end + 1;
+            } else if (keyExpected) {
+                int end = i;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                if (end == i) {
+                    throw invalidPath(path);
+                }
+                steps.add(path.substring(i, end));
+                i = end;
+            } else {
+                throw invalidPath(path);
+            }
+            // a key follows only after '.'
+            keyExpected = i < path.length() && path.charAt(i) == '.';
+            if (keyExpected && ++i == path.length()) {
+                throw invalidPath(path);
+            }
+        }
+        if (steps.isEmpty()) {
+            throw invalidPath(path);
+        }
+        return steps.toArray();
+    }
+
+    private static Integer parseIndex(String path, String index) {
+        if (ANY_KEY.equals(index)) {
+            return ANY_INDEX;
+        }
+        try {
+            int value = Integer.parseInt(index);
+            if (value >= 0 && index.charAt(0) != '+') {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw invalidPath(path);
+    }
+
+    private static IllegalArgumentException invalidPath(String path) {
+        return new IllegalArgumentException("Invalid path: '" + path + "'");
+    }
+
+    /**
+     * @return all the paths (for the root node)
+     */
+    int[] all() {
+        int[] all = new int[paths.length];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    /**
+     * Select the paths which go on with the key of a mapping entry
+     *
+     * @param alive - the paths which match the mapping
+     * @param depth - the number of the steps to the mapping
+     * @param key   - the key of the entry
+     * @return the matching paths or null if there is none
+     */
+    int[] matchKey(int[] alive, int depth, String key) {
+        return match(alive, depth, key, 0);
+    }
+
+    /**
+     * Select the paths which go on with the item of a sequence
+     *
+     * @param alive - the paths which match the sequence
+     * @param depth - the number of the steps to the sequence
+     * @param index - the index of the item
+     * @return the matching paths or null if there is none
+     */
+    int[] matchIndex(int[] alive, int depth, int index) {
+        return match(alive, depth, null, index);
+    }
+
+    private int[] match(int[] alive, int depth, String key, int index) {
+        int[] matching = null;
+        int size = 0;
+        for (int path : alive) {
+            Object step = paths[path][depth];
+            boolean matches;
+            if (key != null) {
+                matches = step instanceof String && (ANY_KEY.equals(step) || key.equals(step));
+            } else {
+                matches = step instanceof Integer && ((Integer) step == ANY_INDEX || (Integer) step == index);
+            }
+            if (matches) {
+                if (matching == null) {
+                    matching = new int[alive.length];
+                }
+                matching[size++] = path;
+            }
+        }
+        return matching == null || size == matching.length ? matching : Arrays.copyOf(matching, size);
+    }
+
+    /**
+     * @return true if one of the paths ends with the given number of the steps (the node is selected)
+     */
+    boolean isComplete(int[] alive, int depth) {
+        for (int path : alive) {
+            if (paths[path].length == depth) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.common.ScalarStyle;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.events.ImplicitTuple;
+import org.snakeyaml.engine.v2.events.ScalarEvent;
+import org.snakeyaml.engine.v2.events.SequenceEndEvent;
+import org.snakeyaml.engine.v2.events.SequenceStartEvent;
+import org.snakeyaml.engine.v2.exceptions.Mark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Provide only the events of the nodes selected by a {@link PathFilter}. The other nodes are skipped
+ * with {@link Parser#skipCurrentNode()}, so the content of a skipped collection is not even parsed
+ * into events by {@link ParserImpl}.
+ * <p>
+ * When the structure is kept, every document contains the collections on the way to the selected nodes
+ * with the keys of the selected entries (the other entries and items are dropped). Otherwise the selected
+ * nodes of a document are the items of a block sequence (in the order of the data).
+ * A selected node may contain an alias only for an anchor in a selected node.
+ * </p>
+ * This class is not thread-safe.
+ */
+public final class PathFilterParser implements Parser {
+
+    private final Parser parser;
+    private final PathFilter filter;
+    private final Deque<Event> events = new ArrayDeque<>();
+    // the collections on the way to the selected nodes
+    private final List<Level> levels = new ArrayList<>();
+    // the number of the open collections in the selected node which is provided as it is
+    private int selectedDepth = 0;
+
+    /**
+     * Create
+     *
+     * @param parser - the source of the events
+     * @param filter - the paths of the selected nodes
+     */
+    public PathFilterParser(Parser parser, PathFilter filter) {
+        Objects.requireNonNull(parser, "parser cannot be null");
+        Objects.requireNonNull(filter, "filter cannot be null");
+        this.parser = parser;
+        this.filter = filter;
+    }
+
+    @Override
+    public boolean checkEvent(Event.ID choice) {
+        return hasNext() && events.peekFirst().getEventId() == choice;
+    }
+
+    @Override
+    public Event peekEvent() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more Events found.");
+        }
+        return events.peekFirst();
+    }
+
+    @Override
+    public Event next() {
+        Event event = peekEvent();
+        events.removeFirst();
+        return event;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (events.isEmpty() && parser.hasNext()) {
+            filter();
+        }
+        return !events.isEmpty();
+    }
+
+    /**
+     * Take at least one event from the parser
+     */
+    private void filter() {
+        if (selectedDepth > 0) {
+            select();
+            return;
+        }
+        Event.ID id = parser.peekEvent().getEventId();
+        if (levels.isEmpty()) {
+            switch (id) {
+                case DocumentStart:
+                    Event start = parser.next();
+                    events.add(start);
+                    if (!filter.isKeepStructure()) {
+                        Optional<Mark> mark = start.getEndMark();
+                        events.add(new SequenceStartEvent(Optional.empty(), Optional.empty(), true,
+                                FlowStyle.BLOCK, mark, mark));
+                    }
+                    break;
+                case DocumentEnd:
+                    Event end = parser.next();
+                    if (!filter.isKeepStructure()) {
+                        Optional<Mark> mark = end.getStartMark();
+                        events.add(new SequenceEndEvent(mark, mark));
+                    }
+                    events.add(end);
+                    break;
+                case StreamStart:
+                case StreamEnd:
+                    events.add(parser.next());
+                    break;
+                default:
+                    filterRoot(id);
+            }
+        } else if (id == Event.ID.SequenceEnd || id == Event.ID.MappingEnd) {
+            Event end = parser.next();
+            levels.remove(levels.size() - 1);
+            if (filter.isKeepStructure()) {
+                events.add(end);
+            }
+        } else {
+            Level level = levels.get(levels.size() - 1);
+            int depth = levels.size() - 1;
+            if (level.mapping) {
+                if (id != Event.ID.Scalar) {
+                    // only the scalar keys are matched
+                    parser.skipCurrentNode();
+                    parser.skipCurrentNode();
+                    return;
+                }
+                ScalarEvent key = (ScalarEvent) parser.next();
+                filterChild(key, filter.matchKey(level.paths, depth, key.getValue()), depth + 1);
+            } else {
+                filterChild(null, filter.matchIndex(level.paths, depth, level.index++), depth + 1);
+            }
+        }
+    }
+
+    private void filterRoot(Event.ID id) {
+        if (id == Event.ID.SequenceStart || id == Event.ID.MappingStart) {
+            Event start = parser.next();
+            if (filter.isKeepStructure()) {
+                events.add(start);
+            }
+            levels.add(new Level(filter.all(), id == Event.ID.MappingStart));
+        } else {
+            Event root = parser.next();
+            if (filter.isKeepStructure()) {
+                // the document must have a node, the scalar cannot contain a selected node
+                events.add(new ScalarEvent(Optional.empty(), Optional.empty(), new ImplicitTuple(true, false), "",
+                        ScalarStyle.PLAIN, root.getStartMark(), root.getEndMark()));
+            }
+        }
+    }
+
+    /**
+     * Select, skip or enter the next node (an item of a sequence or a value of a mapping)
+     *
+     * @param key   - the key of the mapping entry (null for a sequence)
+     * @param paths - the paths which match the node (null if none)
+     * @param depth - the number of the steps to the node
+     */
+    private void filterChild(ScalarEvent key, int[] paths, int depth) {
+        if (paths == null) {
+            parser.skipCurrentNode();
+        } else if (filter.isComplete(paths, depth)) {
+            if (key != null && filter.isKeepStructure()) {
+                events.add(key);
+            }
+            select();
+        } else {
+            Event.ID id = parser.peekEvent().getEventId();
+            if (id == Event.ID.SequenceStart || id == Event.ID.MappingStart) {
+                if (key != null && filter.isKeepStructure()) {
+                    events.add(key);
+                }
+                Event start = parser.next();
+                if (filter.isKeepStructure()) {
+                    events.add(start);
+                }
+                levels.add(new Level(paths, id == Event.ID.MappingStart));
+            } else {
+                // a scalar or an alias cannot contain the rest of the path
+                parser.skipCurrentNode();
+            }
+        }
+    }
+
+    /**
+     * Provide the next event of the selected node as it is
+     */
+    private void select() {
+        Event event = parser.next();
+        switch (event.getEventId()) {
+            case SequenceStart:
+            case MappingStart:
+                selectedDepth++;
+                break;
+            case SequenceEnd:
+            case MappingEnd:
+                selectedDepth--;
+                break;
+            default:
+        }
+        events.add(event);
+    }
+
+    /**
+     * A collection on the way to the selected nodes
+     */
+    private static final class Level {
+        // the paths which match the collection
+        final int[] paths;
+        final boolean mapping;
+        // the index of the next item of a sequence
+        int index = 0;
+
+        Level(int[] paths, boolean mapping) {
+            this.paths = paths;
+            this.mapping = mapping;
+        }
+    }
+}
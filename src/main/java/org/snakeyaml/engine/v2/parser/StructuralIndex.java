@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The first stage of {@link FlowIndexParser}: a single pass over the data finds the positions of
+ * the structural characters ('[', ']', '{', '}', ',' and ':' outside the double-quoted scalars),
+ * of the quotes which open the double-quoted scalars and of the first characters of the plain scalars.
+ * <p>
+ * The data is processed in blocks of 64 chars. Every char is classified into bit masks, the quoted
+ * scalars are found with the prefix XOR of the quote mask (the approach of simdjson) and the positions
+ * are taken from the masks, there is no branch per character for the structure.
+ * </p>
+ * <p>
+ * The index is not created when the data contains anything outside the JSON-compatible subset
+ * (single quotes, comments, tags, anchors, multi-line quoted scalars, CR, etc.)
+ * </p>
+ */
+final class StructuralIndex {
+    private static final int BLOCK_SIZE = 64;
+
+    // the classes of the ASCII chars (anything else cannot be outside the quoted scalars)
+    private static final byte OTHER = 0;
+    private static final byte BLANK = 1;
+    private static final byte LINE_BREAK = 2;
+    private static final byte STRUCTURAL = 3;
+    private static final byte QUOTE = 4;
+    private static final byte BACKSLASH = 5;
+    private static final byte PLAIN = 6;
+    private static final byte INVALID = 7;
+
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            CLASSES[c] = INVALID;
+        }
+        CLASSES[0x7F] = INVALID;
+        CLASSES[' '] = BLANK;
+        CLASSES['\t'] = BLANK;
+        // CR is not a line break for the scanner (it stays in the plain scalars), it is not supported
+        CLASSES['\n'] = LINE_BREAK;
+        for (char c : "[]{},:".toCharArray()) {
+            CLASSES[c] = STRUCTURAL;
+        }
+        CLASSES['"'] = QUOTE;
+        CLASSES['\\'] = BACKSLASH;
+        for (char c : "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-._+/=;$()^~<".toCharArray()) {
+            CLASSES[c] = PLAIN;
+        }
+    }
+
+    private int[] positions;
+    private int size;
+
+    private StructuralIndex(int capacity) {
+        this.positions = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * @param c - the char
+     * @return true if the char may be a part of a plain scalar in the index
+     */
+    static boolean isPlain(char c) {
+        return c < 128 && CLASSES[c] == PLAIN;
+    }
+
+    /**
+     * @param c - the char
+     * @return true for space, tab and LF
+     */
+    static boolean isWhitespace(char c) {
+        return c < 128 && (CLASSES[c] == BLANK || CLASSES[c] == LINE_BREAK);
+    }
+
+    /**
+     * Build the index of the data
+     *
+     * @param data - the data to index
+     * @return the index or empty if the data is not in the supported subset
+     */
+    static Optional<StructuralIndex> build(CharSequence data) {
+        final int length = data.length();
+        StructuralIndex index = new StructuralIndex(Math.max(16, length / 8));
+        boolean escape = false;
+        long stringCarry = 0;
+        long plainCarry = 0;
+        for (int base = 0; base < length; base += BLOCK_SIZE) {
+            final int count = Math.min(BLOCK_SIZE, length - base);
+            long blank = 0;
+            long lineBreak = 0;
+            long structural = 0;
+            long quote = 0;
+            long escaped = 0;
+            long plain = 0;
+            // the chars which are allowed only in the quoted scalars
+            long quoted = 0;
+            for (int i = 0; i < count; i++) {
+                final char c = data.charAt(base + i);
+                final long bit = 1L << i;
+                if (escape) {
+                    escaped |= bit;
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                }
+                if (c < 128) {
+                    switch (CLASSES[c]) {
+                        case BLANK:
+                            blank |= bit;
+                            break;
+                        case LINE_BREAK:
+                            lineBreak |= bit;
+                            break;
+                        case STRUCTURAL:
+                            structural |= bit;
+                            break;
+                        case QUOTE:
+                            quote |= bit;
+                            break;
+                        case PLAIN:
+                            plain |= bit;
+                            break;
+                        case INVALID:
+                            return Optional.empty();
+                        default:
+                            // OTHER and BACKSLASH
+                            quoted |= bit;
+                    }
+                } else if (c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    // line breaks for the reader, but not for the scanner
+                    return Optional.empty();
+                } else if (Character.isHighSurrogate(c)) {
+                    if (base + i + 1 >= length || !Character.isLowSurrogate(data.charAt(base + i + 1))) {
+                        return Optional.empty();
+                    }
+                    quoted |= bit;
+                } else if (Character.isLowSurrogate(c)) {
+                    if (base + i == 0 || !Character.isHighSurrogate(data.charAt(base + i - 1))) {
+                        return Optional.empty();
+                    }
+                    quoted |= bit;
+                } else if (StreamReader.isPrintable(c)) {
+                    quoted |= bit;
+                } else {
+                    return Optional.empty();
+                }
+            }
+            final long valid = count == BLOCK_SIZE ? -1L : (1L << count) - 1;
+            quote &= ~escaped;
+            final long inString = prefixXor(quote) ^ stringCarry;
+            stringCarry = inString >> 63;
+            final long outside = ~inString & valid;
+            if ((quoted & outside) != 0 || (lineBreak & inString & valid) != 0) {
+                return Optional.empty();
+            }
+            plain &= outside;
+            final long plainStarts = plain & ~((plain << 1) | plainCarry);
+            plainCarry = plain >>> 63;
+            long entries = (structural & outside) | (quote & inString & valid) | plainStarts;
+            while (entries != 0) {
+                index.add(base + Long.numberOfTrailingZeros(entries));
+                entries &= entries - 1;
+            }
+        }
+        if (stringCarry != 0) {
+            // the quoted scalar is not closed
+            return Optional.empty();
+        }
+        return Optional.of(index);
+    }
+
+    /**
+     * Every bit of the result is the XOR of the bits of the value up to the same position (inclusive),
+     * so the bits between an opening and a closing quote are set.
+     */
+    private static long prefixXor(long value) {
+        value ^= value << 1;
+        value ^= value << 2;
+        value ^= value << 4;
+        value ^= value << 8;
+        value ^= value << 16;
+        value ^= value << 32;
+        return value;
+    }
+
+    private void add(int position) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        positions[size++] = position;
+    }
+
+    /**
+     * @return the number of the positions
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param i - the number of the position
+     * @return the position in the data
+     */
+    int get(int i) {
+        return positions[i];
+    }
+}
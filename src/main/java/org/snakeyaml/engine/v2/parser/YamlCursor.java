@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.common.Anchor;
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.common.ScalarStyle;
+import org.snakeyaml.engine.v2.common.SpecVersion;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.events.StreamStartEvent;
+import org.snakeyaml.engine.v2.exceptions.Mark;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Pull parser which does not create the events. The cursor is moved with next() and the data
+ * of the current event is available with the accessors (until the next call of next()).
+ * <p>
+ * It is driven by the same productions as {@link ParserImpl}, but neither an Event nor an
+ * ImplicitTuple is created for a step. It suits the consumers which only need the current state
+ * (routing, validation, extraction).
+ * </p>
+ */
+public final class YamlCursor {
+
+    // the parser requires an event from every step, this one is never returned
+    private static final Event PRODUCED = new StreamStartEvent(Optional.empty(), Optional.empty());
+
+    private final CursorParser parser;
+    private Event.ID eventId;
+    private Anchor anchor;
+    private String tag;
+    private CharSequence value;
+    private ScalarStyle scalarStyle;
+    private FlowStyle flowStyle;
+    private boolean implicit;
+    private boolean explicit;
+    private Optional<Mark> startMark = Optional.empty();
+    private Optional<Mark> endMark = Optional.empty();
+    private int depth;
+
+    /**
+     * Create
+     *
+     * @param reader   - the input
+     * @param settings - configuration
+     */
+    public YamlCursor(StreamReader reader, LoadSettings settings) {
+        this.parser = new CursorParser(reader, settings);
+    }
+
+    /**
+     * @return true if there is another event
+     */
+    public boolean hasNext() {
+        // the parser is not asked, it would produce the next event before the current one is consumed
+        return eventId != Event.ID.StreamEnd;
+    }
+
+    /**
+     * Move to the next event
+     *
+     * @return the kind of the event
+     * @throws NoSuchElementException if the stream end is already passed
+     */
+    public Event.ID next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more Events found.");
+        }
+        if (eventId == Event.ID.SequenceStart || eventId == Event.ID.MappingStart) {
+            depth++;
+        }
+        parser.next();
+        if (eventId == Event.ID.SequenceEnd || eventId == Event.ID.MappingEnd) {
+            depth--;
+        }
+        return eventId;
+    }
+
+    /**
+     * @return the kind of the current event (null before the first call of next())
+     */
+    public Event.ID eventId() {
+        return eventId;
+    }
+
+    /**
+     * Get the value of the current scalar. When the scalar slices are enabled the String is created
+     * for every call, use scalarCharSequence() to avoid it.
+     *
+     * @return the value of the scalar
+     * @throws IllegalStateException if the current event is not a scalar
+     */
+    public String scalarValue() {
+        return scalarCharSequence().toString();
+    }
+
+    /**
+     * @return the value of the current scalar as it is provided by the scanner
+     * @throws IllegalStateException if the current event is not a scalar
+     */
+    public CharSequence scalarCharSequence() {
+        requireEvent(Event.ID.Scalar);
+        return value;
+    }
+
+    /**
+     * @return the style of the current scalar
+     * @throws IllegalStateException if the current event is not a scalar
+     */
+    public ScalarStyle scalarStyle() {
+        requireEvent(Event.ID.Scalar);
+        return scalarStyle;
+    }
+
+    /**
+     * @return the flow style of the current collection start
+     * @throws IllegalStateException if the current event is not a sequence or a mapping start
+     */
+    public FlowStyle flowStyle() {
+        if (eventId != Event.ID.SequenceStart && eventId != Event.ID.MappingStart) {
+            throw new IllegalStateException("The current event is not a collection start: " + eventId);
+        }
+        return flowStyle;
+    }
+
+    /**
+     * @return the tag of the current node (null when the tag is not present)
+     */
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * @return the anchor of the current node or the anchor the current alias refers to
+     * (null when the anchor is not present)
+     */
+    public String anchor() {
+        return anchor == null ? null : anchor.getValue();
+    }
+
+    /**
+     * The tag may be omitted: for a collection, it means that the tag is not present. For a scalar,
+     * it means that the tag may be omitted when the scalar is emitted in the plain style.
+     *
+     * @return the implicit flag of the current node
+     */
+    public boolean isImplicit() {
+        return implicit;
+    }
+
+    /**
+     * @return true if the current document start or document end is explicit ('---' or '...')
+     */
+    public boolean isExplicit() {
+        return explicit;
+    }
+
+    /**
+     * Get the number of the collections which contain the current event. The start and the end
+     * of a collection have the same depth (the depth of the collection itself).
+     *
+     * @return the depth of the current event
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public Optional<Mark> startMark() {
+        return startMark;
+    }
+
+    public Optional<Mark> endMark() {
+        return endMark;
+    }
+
+    private void requireEvent(Event.ID id) {
+        if (eventId != id) {
+            throw new IllegalStateException("The current event is not " + id + ": " + eventId);
+        }
+    }
+
+    /**
+     * Replace the data of the previous event
+     */
+    private void produce(Event.ID id, Optional<Mark> startMark, Optional<Mark> endMark) {
+        this.eventId = id;
+        this.startMark = startMark;
+        this.endMark = endMark;
+        this.anchor = null;
+        this.tag = null;
+        this.value = null;
+        this.scalarStyle = null;
+        this.flowStyle = null;
+        this.implicit = false;
+        this.explicit = false;
+    }
+
+    /**
+     * The parser keeps the data of every event in the cursor instead of creating the event.
+     */
+    private final class CursorParser extends ParserImpl {
+
+        CursorParser(StreamReader reader, LoadSettings settings) {
+            super(reader, settings);
+        }
+
+        @Override
+        Event createStreamStartEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.StreamStart, startMark, endMark);
+            return PRODUCED;
+        }
+
+        @Override
+        Event createStreamEndEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.StreamEnd, startMark, endMark);
+            return PRODUCED;
+        }
+
+        @Override
+        Event createDocumentStartEvent(boolean explicit, Optional<SpecVersion> specVersion, Map<String, String> tags,
+                                       Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.DocumentStart, startMark, endMark);
+            YamlCursor.this.explicit = explicit;
+            return PRODUCED;
+        }
+
+        @Override
+        Event createDocumentEndEvent(boolean explicit, Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.DocumentEnd, startMark, endMark);
+            YamlCursor.this.explicit = explicit;
+            return PRODUCED;
+        }
+
+        @Override
+        Event createAliasEvent(Anchor anchor, Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.Alias, startMark, endMark);
+            YamlCursor.this.anchor = anchor;
+            return PRODUCED;
+        }
+
+        @Override
+        Event createScalarEvent(Anchor anchor, String tag, boolean plainImplicit,
+                                boolean nonPlainImplicit, CharSequence value, ScalarStyle style,
+                                Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.Scalar, startMark, endMark);
+            YamlCursor.this.anchor = anchor;
+            YamlCursor.this.tag = tag;
+            YamlCursor.this.implicit = plainImplicit;
+            YamlCursor.this.value = value;
+            YamlCursor.this.scalarStyle = style;
+            return PRODUCED;
+        }
+
+        @Override
+        Event createSequenceStartEvent(Anchor anchor, String tag, boolean implicit,
+                                       FlowStyle flowStyle, Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.SequenceStart, startMark, endMark);
+            collectionStart(anchor, tag, implicit, flowStyle);
+            return PRODUCED;
+        }
+
+        @Override
+        Event createSequenceEndEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.SequenceEnd, startMark, endMark);
+            return PRODUCED;
+        }
+
+        @Override
+        Event createMappingStartEvent(Anchor anchor, String tag, boolean implicit,
+                                      FlowStyle flowStyle, Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.MappingStart, startMark, endMark);
+            collectionStart(anchor, tag, implicit, flowStyle);
+            return PRODUCED;
+        }
+
+        @Override
+        Event createMappingEndEvent(Optional<Mark> startMark, Optional<Mark> endMark) {
+            produce(Event.ID.MappingEnd, startMark, endMark);
+            return PRODUCED;
+        }
+
+        private void collectionStart(Anchor anchor, String tag, boolean implicit, FlowStyle flowStyle) {
+            YamlCursor.this.anchor = anchor;
+            YamlCursor.this.tag = tag;
+            YamlCursor.this.implicit = implicit;
+            YamlCursor.this.flowStyle = flowStyle;
+        }
+    }
+}
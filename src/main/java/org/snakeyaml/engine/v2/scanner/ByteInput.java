@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.scanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/**
+ * Source of bytes for the UTF-8 decoder in {@link StreamReader}.
+ * The unread bytes are kept between the position and the limit of the buffer.
+ */
+abstract class ByteInput {
+    /**
+     * The longest UTF-8 sequence. The decoder asks for more data when less is available.
+     */
+    static final int MAX_SEQUENCE = 4;
+    /**
+     * The size of the region of the file to map at once
+     */
+    static final int MAPPING_WINDOW = 256 * 1024 * 1024;
+
+    protected ByteBuffer buffer;
+    protected boolean end = false;
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return true when no more bytes can be read (the unread bytes may still be in the buffer)
+     */
+    boolean isEnd() {
+        return end;
+    }
+
+    /**
+     * Read more bytes. The unread bytes must be kept.
+     *
+     * @throws IOException if the data cannot be read
+     */
+    abstract void fill() throws IOException;
+
+    /**
+     * Read until at least the given amount of bytes is available or the end is reached
+     *
+     * @param size - the amount of the unread bytes to have in the buffer
+     * @throws IOException if the data cannot be read
+     */
+    void require(int size) throws IOException {
+        while (!end && buffer.remaining() < size) {
+            fill();
+        }
+    }
+
+    /**
+     * The unread bytes and the rest of the data as a stream. It is used when the data is not in UTF-8
+     *
+     * @return all the bytes which are not yet decoded
+     * @throws IOException if the data cannot be read
+     */
+    abstract InputStream toInputStream() throws IOException;
+
+    static ByteInput of(InputStream stream, int bufferSize) {
+        return new StreamInput(stream, bufferSize);
+    }
+
+    static ByteInput of(ByteBuffer bytes) {
+        return new BufferInput(bytes);
+    }
+
+    static ByteInput of(FileChannel channel, int window) {
+        return new MappedInput(channel, window);
+    }
+
+    /**
+     * Read the bytes from InputStream into the reusable array
+     */
+    private static final class StreamInput extends ByteInput {
+        private final InputStream stream;
+
+        StreamInput(InputStream stream, int bufferSize) {
+            this.stream = stream;
+            this.buffer = ByteBuffer.allocate(Math.max(bufferSize, MAX_SEQUENCE * 2));
+            this.buffer.flip();
+        }
+
+        @Override
+        void fill() throws IOException {
+            buffer.compact();
+            int read = stream.read(buffer.array(), buffer.position(), buffer.remaining());
+            if (read > 0) {
+                buffer.position(buffer.position() + read);
+            } else if (read < 0) {
+                end = true;
+            }
+            buffer.flip();
+        }
+
+        @Override
+        InputStream toInputStream() {
+            return new SequenceInputStream(new ByteArrayInputStream(buffer.array(),
+                    buffer.position(), buffer.remaining()), stream);
+        }
+    }
+
+    /**
+     * All the bytes are already in memory
+     */
+    private static final class BufferInput extends ByteInput {
+
+        BufferInput(ByteBuffer bytes) {
+            this.buffer = bytes.slice();
+            this.end = true;
+        }
+
+        @Override
+        void fill() {
+            // nothing to read
+        }
+
+        @Override
+        InputStream toInputStream() {
+            ByteBuffer rest = buffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return rest.hasRemaining() ? rest.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (len == 0) {
+                        return 0;
+                    }
+                    if (!rest.hasRemaining()) {
+                        return -1;
+                    }
+                    int size = Math.min(len, rest.remaining());
+                    rest.get(b, off, size);
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Map the file region by region starting from the current position of the channel
+     */
+    private static final class MappedInput extends ByteInput {
+        private final FileChannel channel;
+        private final int window;
+        /**
+         * Offset in the file of the first byte of the buffer
+         */
+        private long start;
+        private boolean started = false;
+
+        MappedInput(FileChannel channel, int window) {
+            this.channel = channel;
+            this.window = Math.max(window, MAX_SEQUENCE * 2);
+            this.buffer = ByteBuffer.allocate(0);
+        }
+
+        @Override
+        void fill() throws IOException {
+            long offset;
+            if (started) {
+                offset = start + buffer.position();
+            } else {
+                offset = channel.position();
+                started = true;
+            }
+            long size = channel.size();
+            long length = Math.min(window, Math.max(size - offset, 0));
+            // the unread bytes of the previous region are mapped again
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            start = offset;
+            end = offset + length >= size;
+        }
+
+        @Override
+        InputStream toInputStream() throws IOException {
+            if (started) {
+                channel.position(start + buffer.position());
+            }
+            return Channels.newInputStream(channel);
+        }
+    }
+}
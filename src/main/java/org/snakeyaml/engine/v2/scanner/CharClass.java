@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.scanner;
+
+/**
+ * Classes of the code points for the scanner loops. Every code point may belong to several classes,
+ * the classes are bits in the table and a single check can test a combination of them.
+ * All the characters with a special meaning are ASCII, other code points do not belong to any class.
+ * <p>
+ * Helper class for {@link ScannerImpl}.
+ * </p>
+ *
+ * @see org.snakeyaml.engine.v2.common.CharConstants
+ */
+final class CharClass {
+    /**
+     * The end of the stream or LF
+     */
+    static final int NULL_OR_LINEBR = 1;
+    /**
+     * Space or tab
+     */
+    static final int BLANK = 1 << 1;
+    /**
+     * The end of the stream, LF, space or tab
+     */
+    static final int NULL_BL_T_LINEBR = NULL_OR_LINEBR | BLANK;
+    /**
+     * ',', '[', ']', '{', '}'
+     */
+    static final int FLOW_INDICATOR = 1 << 2;
+    /**
+     * '?' ends a plain scalar in the flow context
+     */
+    static final int QUESTION = 1 << 3;
+    /**
+     * The rest of the indicators which cannot start a plain scalar: '-', ':', '#', '&amp;', '*', '!', '|',
+     * '&gt;', '\'', '"', '%', '@', '`'
+     */
+    static final int INDICATOR = 1 << 4;
+    /**
+     * The characters of a URI (including '%' for the escaped characters)
+     */
+    static final int URI = 1 << 5;
+
+    /**
+     * The characters which end a plain scalar in the block context
+     */
+    static final int PLAIN_END_BLOCK = NULL_BL_T_LINEBR;
+    /**
+     * The characters which end a plain scalar in the flow context
+     */
+    static final int PLAIN_END_FLOW = NULL_BL_T_LINEBR | FLOW_INDICATOR | QUESTION;
+    /**
+     * The characters which cannot start a plain scalar
+     */
+    static final int NOT_PLAIN_START = NULL_BL_T_LINEBR | FLOW_INDICATOR | QUESTION | INDICATOR;
+
+    private static final int ASCII_SIZE = 128;
+    private static final int[] TABLE = new int[ASCII_SIZE];
+
+    static {
+        add("\0\n", NULL_OR_LINEBR);
+        add(" \t", BLANK);
+        add(",[]{}", FLOW_INDICATOR);
+        add("?", QUESTION);
+        add("-:#&*!|>'\"%@`", INDICATOR);
+        add("abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ-_;/?:@&=+$,.!~*'()[]%", URI);
+    }
+
+    private CharClass() {
+    }
+
+    private static void add(String chars, int charClass) {
+        for (int i = 0; i < chars.length(); i++) {
+            TABLE[chars.charAt(i)] |= charClass;
+        }
+    }
+
+    /**
+     * @param c     - the code point to check
+     * @param mask  - the classes to check
+     * @return true if the code point belongs to any of the classes
+     */
+    static boolean is(int c, int mask) {
+        return c < ASCII_SIZE && (TABLE[c] & mask) != 0;
+    }
+}
@@ -42,6 +42,19 @@ public interface Scanner extends Iterator<Token> {
      */
     boolean checkToken(Token.ID... choices);
 
+    /**
+     * Check if the next token is one of the types in the mask. Unlike {@link #checkToken(Token.ID...)}
+     * it does not create an array for every call.
+     *
+     * @param idMask the token IDs created with {@link Token.ID#maskOf(Token.ID...)}
+     * @return <code>true</code> if the ID of the next token is in the mask. Returns <code>false</code> if
+     * no more tokens are available.
+     * @throws ScannerException Thrown in case of malformed input.
+     */
+    default boolean checkToken(long idMask) {
+        return hasNext() && (peekToken().getTokenId().getMask() & idMask) != 0;
+    }
+
     /**
      * Return the next token, but do not delete it from the stream.
      * The method must be called only after {@link #checkToken}.
@@ -64,4 +77,31 @@ public interface Scanner extends Iterator<Token> {
      * @throws IndexOutOfBoundsException if no more token left
      */
     Token next();
+
+    /**
+     * Skip the tokens of a collection. The collection start token must be already taken,
+     * the collection end token is taken too.
+     *
+     * @param start - the start token of the collection
+     * @throws ScannerException Thrown in case of malformed input.
+     */
+    default void skipCollection(Token start) {
+        int depth = 1;
+        while (depth > 0 && hasNext()) {
+            switch (next().getTokenId()) {
+                case BlockSequenceStart:
+                case BlockMappingStart:
+                case FlowSequenceStart:
+                case FlowMappingStart:
+                    depth++;
+                    break;
+                case BlockEnd:
+                case FlowSequenceEnd:
+                case FlowMappingEnd:
+                    depth--;
+                    break;
+                default:
+            }
+        }
+    }
 }
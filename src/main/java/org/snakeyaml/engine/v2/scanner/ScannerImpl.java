@@ -16,8 +16,10 @@
 package org.snakeyaml.engine.v2.scanner;
 
 import org.snakeyaml.engine.v2.common.Anchor;
+import org.snakeyaml.engine.v2.common.ArrayQueue;
 import org.snakeyaml.engine.v2.common.ArrayStack;
 import org.snakeyaml.engine.v2.common.CharConstants;
+import org.snakeyaml.engine.v2.common.ScalarInternPolicy;
 import org.snakeyaml.engine.v2.common.ScalarStyle;
 import org.snakeyaml.engine.v2.common.UriEncoder;
 import org.snakeyaml.engine.v2.exceptions.Mark;
@@ -49,17 +51,15 @@ import org.snakeyaml.engine.v2.tokens.ValueToken;
 import java.nio.ByteBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 import static org.snakeyaml.engine.v2.common.CharConstants.ESCAPES;
-import static org.snakeyaml.engine.v2.common.CharConstants.ESCAPE_CODES;
-import static org.snakeyaml.engine.v2.common.CharConstants.ESCAPE_REPLACEMENTS;
+import static org.snakeyaml.engine.v2.common.CharConstants.escapeCodeLength;
+import static org.snakeyaml.engine.v2.common.CharConstants.escapeReplacement;
+import static org.snakeyaml.engine.v2.common.CharConstants.hexDigit;
 
 /**
  * <pre>
@@ -93,11 +93,17 @@ public final class ScannerImpl implements Scanner {
     private static final String EXPECTED_ALPHA_ERROR_PREFIX = "expected alphabetic or numeric character, but found ";
     private static final String SCANNING_SCALAR = "while scanning a block scalar";
     private static final String SCANNING_PREFIX = "while scanning a ";
+    private static final String SKIPPING_FLOW = "while skipping a flow collection";
     /**
-     * A regular expression matching characters which are not in the hexadecimal
-     * set (0-9, A-F, a-f).
+     * The states of the character level skipping: a node may start, inside a plain scalar, after a node
      */
-    private static final Pattern NOT_HEXA = Pattern.compile("[^0-9A-Fa-f]");
+    private static final int SKIP_NODE_START = 0;
+    private static final int SKIP_PLAIN = 1;
+    private static final int SKIP_AFTER_NODE = 2;
+    /**
+     * The longest scalar which is shared with ScalarInternPolicy.SHORT_SCALARS
+     */
+    private static final int SHORT_SCALAR_LENGTH = 32;
 
     private final StreamReader reader;
     // Had we reached the end of the stream?
@@ -107,8 +113,8 @@ public final class ScannerImpl implements Scanner {
     // context.
     private int flowLevel = 0;
 
-    // List of processed tokens that are not yet emitted.
-    private List<Token> tokens;
+    // Queue of processed tokens that are not yet emitted.
+    private ArrayQueue<Token> tokens;
 
     // Number of tokens that were emitted through the `get_token` method.
     private int tokensTaken = 0;
@@ -146,20 +152,30 @@ public final class ScannerImpl implements Scanner {
     private boolean allowSimpleKey = true;
 
     /*
-     * Keep track of possible simple keys. This is a dictionary. The key is
-     * `flow_level`; there can be no more that one possible simple key for each
-     * level. The value is a SimpleKey record: (token_number, required, index,
-     * line, column, mark) A simple key may start with ALIAS, ANCHOR, TAG,
-     * SCALAR(flow), '[', or '{' tokens.
+     * Keep track of possible simple keys. There can be no more that one
+     * possible simple key for each `flow_level`. The SimpleKey record is
+     * (token_number, required, index, line, column, mark) and its flow level
+     * is kept in the parallel array. A simple key may start with ALIAS,
+     * ANCHOR, TAG, SCALAR(flow), '[', or '{' tokens. The keys are kept in the
+     * order of their token numbers (a new key is always added at the end),
+     * which makes the first key the nearest one. The number of keys is limited
+     * by the nesting of the flow collections, so a linear search is enough.
      */
-    private Map<Integer, SimpleKey> possibleSimpleKeys;
+    private SimpleKey[] possibleSimpleKeys;
+    private int[] possibleSimpleKeyLevels;
+    private int possibleSimpleKeysCount = 0;
+
+    // Skipping a block collection: the values of the scalars are not created
+    // while the number of the indentation levels is at least skippingIndents.
+    private boolean skipping = false;
+    private int skippingIndents = 0;
 
     public ScannerImpl(StreamReader reader) {
         this.reader = reader;
-        this.tokens = new ArrayList<>(100);
+        this.tokens = new ArrayQueue<>(128);
         this.indents = new ArrayStack<>(10);
-        // The order in possibleSimpleKeys is kept for nextPossibleSimpleKey()
-        this.possibleSimpleKeys = new LinkedHashMap<>();
+        this.possibleSimpleKeys = new SimpleKey[8];
+        this.possibleSimpleKeyLevels = new int[8];
         fetchStreamStart();// Add the STREAM-START token.
     }
 
@@ -187,6 +203,17 @@ public final class ScannerImpl implements Scanner {
         return false;
     }
 
+    /**
+     * Check whether the next token is one of the types in the mask.
+     */
+    @Override
+    public boolean checkToken(long idMask) {
+        while (needMoreTokens()) {
+            fetchMoreTokens();
+        }
+        return !this.tokens.isEmpty() && (this.tokens.get(0).getTokenId().getMask() & idMask) != 0;
+    }
+
     /**
      * Return the next token, but do not delete it from the queue.
      */
@@ -199,7 +226,10 @@ public final class ScannerImpl implements Scanner {
 
     @Override
     public boolean hasNext() {
-        return checkToken();
+        while (needMoreTokens()) {
+            fetchMoreTokens();
+        }
+        return !this.tokens.isEmpty();
     }
 
     /**
@@ -210,7 +240,248 @@ public final class ScannerImpl implements Scanner {
         if (this.tokens.isEmpty()) {
             throw new NoSuchElementException("No more Tokens found.");
         } else {
-            return this.tokens.remove(0);
+            return this.tokens.removeFirst();
+        }
+    }
+
+    /**
+     * Skip the rest of the collection which starts with the given token (the token is already taken).
+     * The content of a flow collection which is not scanned yet is skipped on the character level,
+     * the content of a block collection is scanned without the values of the scalars.
+     */
+    @Override
+    public void skipCollection(Token start) {
+        switch (start.getTokenId()) {
+            case FlowSequenceStart:
+            case FlowMappingStart:
+                skipFlowCollection();
+                break;
+            case BlockSequenceStart:
+            case BlockMappingStart:
+                skipBlockCollection();
+                break;
+            default:
+                throw new IllegalArgumentException("Not a collection start: " + start.getTokenId());
+        }
+    }
+
+    private void skipBlockCollection() {
+        // the collection is open while its indentation is in the stack. The tokens in the queue are scanned
+        // after the start token and they may have changed the indentation already
+        int collectionIndents = this.indents.size();
+        for (int i = 0; i < this.tokens.size(); i++) {
+            switch (this.tokens.get(i).getTokenId()) {
+                case BlockSequenceStart:
+                case BlockMappingStart:
+                    collectionIndents--;
+                    break;
+                case BlockEnd:
+                    collectionIndents++;
+                    break;
+                default:
+            }
+        }
+        this.skippingIndents = collectionIndents;
+        this.skipping = this.indents.size() >= collectionIndents;
+        try {
+            int depth = 1;
+            while (depth > 0 && hasNext()) {
+                switch (next().getTokenId()) {
+                    case BlockSequenceStart:
+                    case BlockMappingStart:
+                        depth++;
+                        break;
+                    case BlockEnd:
+                        depth--;
+                        break;
+                    case FlowSequenceStart:
+                    case FlowMappingStart:
+                        skipFlowCollection();
+                        break;
+                    default:
+                }
+            }
+        } finally {
+            this.skipping = false;
+        }
+    }
+
+    private void skipFlowCollection() {
+        // take the tokens which are already scanned
+        int depth = 1;
+        boolean afterNode = false;
+        while (depth > 0 && !this.tokens.isEmpty()) {
+            Token token = this.tokens.get(0);
+            final Token.ID id = token.getTokenId();
+            afterNode = id == Token.ID.Scalar || id == Token.ID.Alias
+                    || id == Token.ID.FlowSequenceEnd || id == Token.ID.FlowMappingEnd;
+            switch (id) {
+                case FlowSequenceStart:
+                case FlowMappingStart:
+                    depth++;
+                    break;
+                case FlowSequenceEnd:
+                case FlowMappingEnd:
+                    depth--;
+                    break;
+                case DocumentStart:
+                case DocumentEnd:
+                case StreamEnd:
+                    throw new ScannerException(SKIPPING_FLOW, Optional.empty(),
+                            "found unexpected " + token.getTokenId(), token.getStartMark());
+                default:
+            }
+            next();
+        }
+        if (depth > 0) {
+            skipFlowContent(depth, afterNode ? SKIP_AFTER_NODE : SKIP_NODE_START);
+            // the possible simple keys belong to the taken tokens
+            Arrays.fill(this.possibleSimpleKeys, 0, this.possibleSimpleKeysCount, null);
+            this.possibleSimpleKeysCount = 0;
+            this.flowLevel -= depth;
+            // No simple keys after ']' or '}'.
+            this.allowSimpleKey = false;
+        }
+    }
+
+    /**
+     * Skip the characters until the given number of flow collections is closed. Only the brackets,
+     * the quoted scalars, the comments and the properties are recognized, no token is created.
+     *
+     * @param depth - the number of the open collections
+     * @param state - SKIP_AFTER_NODE when the last taken token is a node (a ':' after it is a value indicator)
+     */
+    private void skipFlowContent(int depth, int state) {
+        Optional<Mark> startMark = reader.getMark();
+        boolean afterBlank = true;
+        while (depth > 0) {
+            final int c = reader.peek();
+            if (CharClass.is(c, CharClass.BLANK)) {
+                reader.forward();
+                afterBlank = true;
+                continue;
+            }
+            if (c == '\0') {
+                throw new ScannerException(SKIPPING_FLOW, startMark, "found unexpected end of stream",
+                        reader.getMark());
+            }
+            if (scanLineBreak().length() != 0) {
+                if ((reader.peek() == '-' && checkDocumentStart()) || (reader.peek() == '.' && checkDocumentEnd())) {
+                    throw new ScannerException(SKIPPING_FLOW, startMark,
+                            "found unexpected document separator", reader.getMark());
+                }
+                afterBlank = true;
+                continue;
+            }
+            if (c == '#' && (afterBlank || state != SKIP_PLAIN)) {
+                while (!CharClass.is(reader.peek(), CharClass.NULL_OR_LINEBR)) {
+                    reader.forward();
+                }
+                continue;
+            }
+            afterBlank = false;
+            switch (c) {
+                case '[':
+                case '{':
+                    depth++;
+                    reader.forward();
+                    state = SKIP_NODE_START;
+                    break;
+                case ']':
+                case '}':
+                    depth--;
+                    reader.forward();
+                    state = SKIP_AFTER_NODE;
+                    break;
+                case ',':
+                    reader.forward();
+                    state = SKIP_NODE_START;
+                    break;
+                case ':':
+                    if (state == SKIP_AFTER_NODE
+                            || CharClass.is(reader.peek(1), CharClass.NULL_BL_T_LINEBR | CharClass.FLOW_INDICATOR)) {
+                        state = SKIP_NODE_START;
+                    } else {
+                        state = SKIP_PLAIN;
+                    }
+                    reader.forward();
+                    break;
+                case '\'':
+                case '"':
+                    if (state == SKIP_NODE_START) {
+                        skipQuoted(c);
+                        state = SKIP_AFTER_NODE;
+                    } else {
+                        reader.forward();
+                        state = SKIP_PLAIN;
+                    }
+                    break;
+                case '!':
+                case '&':
+                case '*':
+                    if (state == SKIP_NODE_START) {
+                        skipProperty(c);
+                        state = c == '*' ? SKIP_AFTER_NODE : SKIP_NODE_START;
+                    } else {
+                        reader.forward();
+                        state = SKIP_PLAIN;
+                    }
+                    break;
+                default:
+                    reader.forward();
+                    if (c != '?' || state != SKIP_NODE_START
+                            || !CharClass.is(reader.peek(), CharClass.NULL_BL_T_LINEBR)) {
+                        state = SKIP_PLAIN;
+                    }
+            }
+        }
+    }
+
+    private void skipQuoted(int quote) {
+        Optional<Mark> startMark = reader.getMark();
+        reader.forward();
+        while (true) {
+            final int c = reader.peek();
+            if (c == '\0') {
+                throw new ScannerException("while scanning a quoted scalar", startMark,
+                        "found unexpected end of stream", reader.getMark());
+            } else if (c == quote) {
+                if (quote == '\'' && reader.peek(1) == '\'') {
+                    reader.forward(2);
+                } else {
+                    reader.forward();
+                    return;
+                }
+            } else if (c == '\\' && quote == '"') {
+                reader.forward(2);
+            } else {
+                reader.forward();
+            }
+        }
+    }
+
+    private void skipProperty(int indicator) {
+        reader.forward();
+        if (indicator == '!') {
+            if (reader.peek() == '<') {
+                // verbatim tag
+                while (reader.peek() != '>' && !CharClass.is(reader.peek(), CharClass.NULL_BL_T_LINEBR)) {
+                    reader.forward();
+                }
+                if (reader.peek() == '>') {
+                    reader.forward();
+                }
+            } else {
+                while (reader.peek() == '!' || CharClass.is(reader.peek(), CharClass.URI)) {
+                    reader.forward();
+                }
+            }
+        } else {
+            // anchor or alias
+            while (reader.peek() != ':'
+                    && !CharClass.is(reader.peek(), CharClass.NULL_BL_T_LINEBR | CharClass.FLOW_INDICATOR)) {
+                reader.forward();
+            }
         }
     }
 
@@ -373,14 +644,14 @@ public final class ScannerImpl implements Scanner {
 
     /**
      * Return the number of the nearest possible simple key. Actually we don't
-     * need to loop through the whole dictionary.
+     * need to loop through all the keys.
      */
     private int nextPossibleSimpleKey() {
         /*
          * Because this.possibleSimpleKeys is ordered we can simply take the first key
          */
-        if (!this.possibleSimpleKeys.isEmpty()) {
-            return this.possibleSimpleKeys.values().iterator().next().getTokenNumber();
+        if (this.possibleSimpleKeysCount > 0) {
+            return this.possibleSimpleKeys[0].getTokenNumber();
         }
         return -1;
     }
@@ -396,26 +667,31 @@ public final class ScannerImpl implements Scanner {
      * </pre>
      */
     private void stalePossibleSimpleKeys() {
-        if (!this.possibleSimpleKeys.isEmpty()) {
-            for (Iterator<SimpleKey> iterator = this.possibleSimpleKeys.values().iterator(); iterator
-                    .hasNext(); ) {
-                SimpleKey key = iterator.next();
-                if ((key.getLine() != reader.getLine())
-                        || (reader.getIndex() - key.getIndex() > 1024)) {
-                    // If the key is not on the same line as the current
-                    // position OR the difference in column between the token
-                    // start and the current position is more than the maximum
-                    // simple key length, then this cannot be a simple key.
-                    if (key.isRequired()) {
-                        // If the key was required, this implies an error
-                        // condition.
-                        throw new ScannerException("while scanning a simple key", key.getMark(),
-                                "could not find expected ':'", reader.getMark());
-                    }
-                    iterator.remove();
+        int kept = 0;
+        for (int i = 0; i < this.possibleSimpleKeysCount; i++) {
+            SimpleKey key = this.possibleSimpleKeys[i];
+            if ((key.getLine() != reader.getLine())
+                    || (reader.getIndex() - key.getIndex() > 1024)) {
+                // If the key is not on the same line as the current
+                // position OR the difference in column between the token
+                // start and the current position is more than the maximum
+                // simple key length, then this cannot be a simple key.
+                if (key.isRequired()) {
+                    // If the key was required, this implies an error
+                    // condition.
+                    throw new ScannerException("while scanning a simple key", key.getMark(),
+                            "could not find expected ':'", reader.getMark());
                 }
+            } else {
+                this.possibleSimpleKeys[kept] = key;
+                this.possibleSimpleKeyLevels[kept] = this.possibleSimpleKeyLevels[i];
+                kept++;
             }
         }
+        for (int i = kept; i < this.possibleSimpleKeysCount; i++) {
+            this.possibleSimpleKeys[i] = null;
+        }
+        this.possibleSimpleKeysCount = kept;
     }
 
     /**
@@ -448,15 +724,43 @@ public final class ScannerImpl implements Scanner {
             int tokenNumber = this.tokensTaken + this.tokens.size();
             SimpleKey key = new SimpleKey(tokenNumber, required, reader.getIndex(),
                     reader.getLine(), this.reader.getColumn(), this.reader.getMark());
-            this.possibleSimpleKeys.put(this.flowLevel, key);
+            // the key at this level is removed, the new key has the largest token number
+            if (this.possibleSimpleKeysCount == this.possibleSimpleKeys.length) {
+                int capacity = this.possibleSimpleKeysCount * 2;
+                this.possibleSimpleKeys = Arrays.copyOf(this.possibleSimpleKeys, capacity);
+                this.possibleSimpleKeyLevels = Arrays.copyOf(this.possibleSimpleKeyLevels, capacity);
+            }
+            this.possibleSimpleKeys[this.possibleSimpleKeysCount] = key;
+            this.possibleSimpleKeyLevels[this.possibleSimpleKeysCount] = this.flowLevel;
+            this.possibleSimpleKeysCount++;
         }
     }
 
+    /**
+     * Take the saved possible key position at the current flow level.
+     *
+     * @return the key or null if there is no possible simple key at this level
+     */
+    private SimpleKey takePossibleSimpleKey() {
+        for (int i = 0; i < this.possibleSimpleKeysCount; i++) {
+            if (this.possibleSimpleKeyLevels[i] == this.flowLevel) {
+                SimpleKey key = this.possibleSimpleKeys[i];
+                int moved = this.possibleSimpleKeysCount - i - 1;
+                System.arraycopy(this.possibleSimpleKeys, i + 1, this.possibleSimpleKeys, i, moved);
+                System.arraycopy(this.possibleSimpleKeyLevels, i + 1, this.possibleSimpleKeyLevels, i, moved);
+                this.possibleSimpleKeysCount--;
+                this.possibleSimpleKeys[this.possibleSimpleKeysCount] = null;
+                return key;
+            }
+        }
+        return null;
+    }
+
     /**
      * Remove the saved possible key position at the current flow level.
      */
     private void removePossibleSimpleKey() {
-        SimpleKey key = possibleSimpleKeys.remove(flowLevel);
+        SimpleKey key = takePossibleSimpleKey();
         if (key != null && key.isRequired()) {
             throw new ScannerException("while scanning a simple key", key.getMark(),
                     "could not find expected ':'", reader.getMark());
@@ -497,6 +801,10 @@ public final class ScannerImpl implements Scanner {
             Optional<Mark> mark = reader.getMark();
             this.indent = this.indents.pop();
             this.tokens.add(new BlockEndToken(mark, mark));
+            if (this.skipping && this.indents.size() < this.skippingIndents) {
+                // the skipped collection is closed, the following tokens are read as usual
+                this.skipping = false;
+            }
         }
     }
 
@@ -534,7 +842,8 @@ public final class ScannerImpl implements Scanner {
         // Reset simple keys.
         removePossibleSimpleKey();
         this.allowSimpleKey = false;
-        this.possibleSimpleKeys.clear();
+        Arrays.fill(this.possibleSimpleKeys, 0, this.possibleSimpleKeysCount, null);
+        this.possibleSimpleKeysCount = 0;
 
         // Read the token.
         Optional<Mark> mark = reader.getMark();
@@ -775,7 +1084,7 @@ public final class ScannerImpl implements Scanner {
      */
     private void fetchValue() {
         // Do we determine a simple key?
-        SimpleKey key = this.possibleSimpleKeys.remove(this.flowLevel);
+        SimpleKey key = takePossibleSimpleKey();
         if (key != null) {
             // Add KEY.
             this.tokens.add(key.getTokenNumber() - this.tokensTaken, new KeyToken(key.getMark(),
@@ -1053,9 +1362,9 @@ public final class ScannerImpl implements Scanner {
         int c = reader.peek();
         // If the next char is NOT one of the forbidden chars above or
         // whitespace, then this is the start of a plain scalar.
-        return CharConstants.NULL_BL_T_LINEBR.hasNo(c, "-?:,[]{}#&*!|>'\"%@`")
-                || (CharConstants.NULL_BL_T_LINEBR.hasNo(reader.peek(1)) && (c == '-' || (this.flowLevel == 0 && "?:"
-                .indexOf(c) != -1)));
+        return !CharClass.is(c, CharClass.NOT_PLAIN_START)
+                || (!CharClass.is(reader.peek(1), CharClass.NULL_BL_T_LINEBR)
+                && (c == '-' || (this.flowLevel == 0 && (c == '?' || c == ':'))));
     }
 
     // Scanners.
@@ -1093,7 +1402,7 @@ public final class ScannerImpl implements Scanner {
             // Peek ahead until we find the first non-space character, then
             // move forward directly to that character.
             // (allow TAB to precede a token, test J3BT)
-            while (reader.peek(ff) == ' ' || reader.peek(ff) == '\t') {
+            while (CharClass.is(reader.peek(ff), CharClass.BLANK)) {
                 ff++;
             }
             if (ff > 0) {
@@ -1105,7 +1414,7 @@ public final class ScannerImpl implements Scanner {
             // past the comment.
             if (reader.peek() == '#') {
                 ff = 0;
-                while (CharConstants.NULL_OR_LINEBR.hasNo(reader.peek(ff))) {
+                while (!CharClass.is(reader.peek(ff), CharClass.NULL_OR_LINEBR)) {
                     ff++;
                 }
                 if (ff > 0) {
@@ -1448,7 +1757,6 @@ public final class ScannerImpl implements Scanner {
 
     private Token scanBlockScalar(ScalarStyle style) {
         // See the specification for details.
-        StringBuilder chunks = new StringBuilder();
         Optional<Mark> startMark = reader.getMark();
         // Scan the header.
         reader.forward();
@@ -1461,38 +1769,33 @@ public final class ScannerImpl implements Scanner {
         if (minIndent < 1) {
             minIndent = 1;
         }
-        String breaks;
+        StringBuilder breaks = new StringBuilder();
         int maxIndent;
         int blockIndent;
         Optional<Mark> endMark;
         if (increment == -1) {
             Object[] brme = scanBlockScalarIndentation();
-            breaks = (String) brme[0];
+            breaks.append((String) brme[0]);
             maxIndent = ((Integer) brme[1]).intValue();
             endMark = (Optional<Mark>) brme[2];
             blockIndent = Math.max(minIndent, maxIndent);
         } else {
             blockIndent = minIndent + increment - 1;
-            Object[] brme = scanBlockScalarBreaks(blockIndent);
-            breaks = (String) brme[0];
-            endMark = (Optional<Mark>) brme[1];
+            endMark = scanBlockScalarBreaks(blockIndent, breaks);
         }
 
         String lineBreak = "";
+        StringBuilder chunks = new StringBuilder(breaks.length() + measureBlockScalar(blockIndent));
 
         // Scan the inner part of the block scalar.
         while (this.reader.getColumn() == blockIndent && reader.peek() != '\0') {
             chunks.append(breaks);
+            breaks.setLength(0);
             boolean leadingNonSpace = " \t".indexOf(reader.peek()) == -1;
-            int length = 0;
-            while (CharConstants.NULL_OR_LINEBR.hasNo(reader.peek(length))) {
-                length++;
-            }
-            chunks.append(reader.prefixForward(length));
+            // the whole line is appended at once
+            reader.appendForward(chunks, reader.lineLength(0));
             lineBreak = scanLineBreak();
-            Object[] brme = scanBlockScalarBreaks(blockIndent);
-            breaks = (String) brme[0];
-            endMark = (Optional<Mark>) brme[1];
+            endMark = scanBlockScalarBreaks(blockIndent, breaks);
             if (this.reader.getColumn() == blockIndent && reader.peek() != '\0') {
 
                 // Unfortunately, folding rules are ambiguous.
@@ -1648,34 +1951,64 @@ public final class ScannerImpl implements Scanner {
         return new Object[]{chunks.toString(), maxIndent, endMark};
     }
 
-    private Object[] scanBlockScalarBreaks(int indent) {
-        // See the specification for details.
-        StringBuilder chunks = new StringBuilder();
-        Optional<Mark> endMark = reader.getMark();
-        int col = this.reader.getColumn();
-        // Scan for up to the expected indentation-level of spaces, then move
-        // forward past that amount.
-        while (col < indent && reader.peek() == ' ') {
-            reader.forward();
-            col++;
+    /**
+     * Measure the lines of the block scalar ahead to size the value. Every line is found with a bulk search,
+     * only its indentation is checked. The result is the length of the lines with their breaks, it may be
+     * larger than the value (the indentation, the folding and the chomping are not applied).
+     *
+     * @param blockIndent - the indentation of the block scalar
+     * @return the expected number of chars in the value
+     */
+    private int measureBlockScalar(int blockIndent) {
+        if (reader.getColumn() != blockIndent) {
+            return 0;
         }
+        int length = 0;
+        int position = 0;
+        while (reader.peek(position) != '\0') {
+            final int line = reader.lineLength(position);
+            length += line + 1;
+            position += line + 1;
+            int spaces = 0;
+            while (spaces < blockIndent && reader.peek(position + spaces) == ' ') {
+                spaces++;
+            }
+            if (spaces < blockIndent && reader.peek(position + spaces) != '\n') {
+                break;
+            }
+            position += spaces;
+        }
+        return length;
+    }
 
-        // Consume one or more line breaks followed by any amount of spaces,
-        // until we find something that isn't a line-break.
-        String lineBreak = null;
-        while ((lineBreak = scanLineBreak()).length() != 0) {
-            chunks.append(lineBreak);
-            endMark = reader.getMark();
-            // Scan past up to (indent) spaces on the next line, then forward
-            // past them.
-            col = this.reader.getColumn();
-            while (col < indent && reader.peek() == ' ') {
-                reader.forward();
-                col++;
+    /**
+     * Scan the line breaks and the indentation of the empty lines in a block scalar.
+     *
+     * @param indent - the indentation of the block scalar
+     * @param breaks - the builder to append the line breaks to
+     * @return the mark after the last line break. It is created only when the block scalar ends
+     * (it is empty when the next line continues the block scalar)
+     */
+    private Optional<Mark> scanBlockScalarBreaks(int indent, StringBuilder breaks) {
+        // See the specification for details.
+        while (true) {
+            // Scan for up to the expected indentation-level of spaces.
+            final int col = this.reader.getColumn();
+            int spaces = 0;
+            while (col + spaces < indent && reader.peek(spaces) == ' ') {
+                spaces++;
             }
+            final int c = reader.peek(spaces);
+            if (c != '\r' && c != '\n' && c != '\u0085' && c != '\u2028' && c != '\u2029') {
+                // The mark shares the window, so it is not created for every line of the block scalar.
+                Optional<Mark> endMark = col + spaces == indent && c != '\0' ? Optional.empty() : reader.getMark();
+                reader.forward(spaces);
+                return endMark;
+            }
+            // Consume one or more line breaks followed by any amount of spaces.
+            reader.forward(spaces);
+            breaks.append(scanLineBreak());
         }
-        // Return both the assembled intervening string and the end-mark.
-        return new Object[]{chunks.toString(), endMark};
     }
 
     /**
@@ -1697,10 +2030,26 @@ public final class ScannerImpl implements Scanner {
         // The style will be either single- or double-quoted; we determine this
         // by the first character in the entry (supplied)
         final boolean doubleValue = style == ScalarStyle.DOUBLE_QUOTED;
-        StringBuilder chunks = new StringBuilder();
         Optional<Mark> startMark = reader.getMark();
         int quote = reader.peek();
         reader.forward();
+        // The value is the same as in the data when it is a single line without escaping
+        int length = reader.countUntil(quote, doubleValue ? '\\' : quote);
+        final int c = reader.peek(length);
+        // '' in a single-quoted scalar is an escaped quote
+        if (c == quote && (doubleValue || reader.peek(length + 1) != '\'')) {
+            CharSequence value = scalarForward(length, length + 1);
+            reader.forward();
+            return new ScalarToken(value, false, style, startMark, reader.getMark());
+        }
+        // The run is taken as it is, except the trailing spaces which may be folded with a line break
+        while (length > 0 && CharClass.is(reader.peek(length - 1), CharClass.BLANK)) {
+            length--;
+        }
+        StringBuilder chunks = new StringBuilder();
+        if (length != 0) {
+            chunks.append(reader.prefixForward(length));
+        }
         chunks.append(scanFlowScalarNonSpaces(doubleValue, startMark));
         while (reader.peek() != quote) {
             chunks.append(scanFlowScalarSpaces(startMark));
@@ -1721,15 +2070,17 @@ public final class ScannerImpl implements Scanner {
             // Scan through any number of characters which are not: NUL, blank,
             // tabs, line breaks, single-quotes, double-quotes, or backslashes.
             int length = 0;
-            while (CharConstants.NULL_BL_T_LINEBR.hasNo(reader.peek(length), "'\"\\")) {
+            int c = reader.peek();
+            while (!CharClass.is(c, CharClass.NULL_BL_T_LINEBR) && c != '\'' && c != '"' && c != '\\') {
                 length++;
+                c = reader.peek(length);
             }
             if (length != 0) {
                 chunks.append(reader.prefixForward(length));
             }
             // Depending on our quoting-type, the characters ', " and \ have
             // differing meanings.
-            int c = reader.peek();
+            c = reader.peek();
             if (!doubleQuoted && c == '\'' && reader.peek(1) == '\'') {
                 chunks.append("'");
                 reader.forward(2);
@@ -1739,27 +2090,35 @@ public final class ScannerImpl implements Scanner {
             } else if (doubleQuoted && c == '\\') {
                 reader.forward();
                 c = reader.peek();
-                if (!Character.isSupplementaryCodePoint(c) && ESCAPE_REPLACEMENTS.containsKey(c)) {
+                final int replacement = escapeReplacement(c);
+                length = escapeCodeLength(c);
+                if (replacement != -1) {
                     // The character is one of the single-replacement
                     // types; these are replaced with a literal character
                     // from the mapping.
-                    chunks.append(ESCAPE_REPLACEMENTS.get(c));
+                    chunks.append((char) replacement);
                     reader.forward();
-                } else if (!Character.isSupplementaryCodePoint(c) && ESCAPE_CODES.containsKey(Character.valueOf((char) c))) {
+                } else if (length != 0) {
                     // The character is a multi-digit escape sequence, with
                     // length defined by the value in the ESCAPE_CODES map.
-                    length = ESCAPE_CODES.get(Character.valueOf((char) c)).intValue();
                     reader.forward();
-                    String hex = reader.prefix(length);
-                    if (NOT_HEXA.matcher(hex).find()) {
+                    int codePoint = 0;
+                    for (int i = 0; i < length; i++) {
+                        final int digit = hexDigit(reader.peek(i));
+                        if (digit == -1) {
+                            throw new ScannerException("while scanning a double-quoted scalar",
+                                    startMark, "expected escape sequence of " + length
+                                    + " hexadecimal numbers, but found: " + reader.prefix(length),
+                                    reader.getMark());
+                        }
+                        codePoint = (codePoint << 4) | digit;
+                    }
+                    if (!Character.isValidCodePoint(codePoint)) {
                         throw new ScannerException("while scanning a double-quoted scalar",
-                                startMark, "expected escape sequence of " + length
-                                + " hexadecimal numbers, but found: " + hex,
-                                reader.getMark());
+                                startMark, "found invalid code point in the escape sequence: "
+                                + reader.prefix(length), reader.getMark());
                     }
-                    int decimal = Integer.parseInt(hex, 16);
-                    String unicode = new String(Character.toChars(decimal));
-                    chunks.append(unicode);
+                    chunks.appendCodePoint(codePoint);
                     reader.forward(length);
                 } else if (scanLineBreak().length() != 0) {
                     chunks.append(scanFlowScalarBreaks(startMark));
@@ -1846,11 +2205,17 @@ public final class ScannerImpl implements Scanner {
      * </pre>
      */
     private Token scanPlain() {
-        StringBuilder chunks = new StringBuilder();
+        // the first chunk is not copied when the scalar has only one chunk
+        CharSequence firstChunk = null;
+        StringBuilder chunks = null;
         Optional<Mark> startMark = reader.getMark();
         Optional<Mark> endMark = startMark;
         int plainIndent = this.indent + 1;
         String spaces = "";
+        // the flow level does not change inside the scalar
+        final int plainEnd = this.flowLevel != 0 ? CharClass.PLAIN_END_FLOW : CharClass.PLAIN_END_BLOCK;
+        final int afterColonEnd = this.flowLevel != 0
+                ? CharClass.NULL_BL_T_LINEBR | CharClass.FLOW_INDICATOR : CharClass.NULL_BL_T_LINEBR;
         while (true) {
             int c;
             int length = 0;
@@ -1860,9 +2225,8 @@ public final class ScannerImpl implements Scanner {
             }
             while (true) {
                 c = reader.peek(length);
-                if (CharConstants.NULL_BL_T_LINEBR.has(c)
-                        || (c == ':' && CharConstants.NULL_BL_T_LINEBR.has(reader.peek(length + 1), flowLevel != 0 ? ",[]{}" : ""))
-                        || (this.flowLevel != 0 && ",?[]{}".indexOf(c) != -1)) {
+                if (CharClass.is(c, plainEnd)
+                        || (c == ':' && CharClass.is(reader.peek(length + 1), afterColonEnd))) {
                     break;
                 }
                 length++;
@@ -1871,8 +2235,15 @@ public final class ScannerImpl implements Scanner {
                 break;
             }
             this.allowSimpleKey = false;
-            chunks.append(spaces);
-            chunks.append(reader.prefixForward(length));
+            if (firstChunk == null) {
+                firstChunk = scalarForward(length, length);
+            } else {
+                if (chunks == null) {
+                    chunks = new StringBuilder(firstChunk);
+                }
+                chunks.append(spaces);
+                chunks.append(reader.prefixForward(length));
+            }
             endMark = reader.getMark();
             spaces = scanPlainSpaces();
             if (spaces.length() == 0 || reader.peek() == '#'
@@ -1880,7 +2251,44 @@ public final class ScannerImpl implements Scanner {
                 break;
             }
         }
-        return new ScalarToken(chunks.toString(), true, startMark, endMark);
+        CharSequence value = chunks != null ? chunks.toString() : (firstChunk != null ? firstChunk : "");
+        return new ScalarToken(value, true, ScalarStyle.PLAIN, startMark, endMark);
+    }
+
+    /**
+     * Get the value of a plain or a quoted scalar which is the same as in the data.
+     * The String is shared when the scalar is a simple key or a short scalar (depending on the policy).
+     *
+     * @param length - the length of the value
+     * @param after  - the position after the scalar (after the closing quote)
+     * @return the value
+     */
+    private CharSequence scalarForward(int length, int after) {
+        if (this.skipping) {
+            reader.forward(length);
+            return "";
+        }
+        final ScalarInternPolicy policy = reader.getScalarInternPolicy();
+        if (policy == ScalarInternPolicy.NONE) {
+            return reader.sliceForward(length);
+        }
+        // skip the spaces between the scalar and ':' (or the end of the plain scalar)
+        int next = after;
+        while (CharClass.is(reader.peek(next), CharClass.BLANK)) {
+            next++;
+        }
+        final int c = reader.peek(next);
+        final boolean intern;
+        if (c == ':') {
+            intern = true;
+        } else if (policy == ScalarInternPolicy.SHORT_SCALARS && length <= SHORT_SCALAR_LENGTH) {
+            // the plain scalar may continue after the spaces (then the String of the first chunk is not kept)
+            intern = c == '\r' || c == '#' || CharClass.is(c, CharClass.NULL_OR_LINEBR)
+                    || (this.flowLevel != 0 && CharClass.is(c, CharClass.FLOW_INDICATOR));
+        } else {
+            intern = false;
+        }
+        return intern ? reader.prefixForwardInterned(length) : reader.sliceForward(length);
     }
 
     /**
@@ -1889,7 +2297,7 @@ public final class ScannerImpl implements Scanner {
      */
     private String scanPlainSpaces() {
         int length = 0;
-        while (reader.peek(length) == ' ' || reader.peek(length) == '\t') {
+        while (CharClass.is(reader.peek(length), CharClass.BLANK)) {
             length++;
         }
         String whitespaces = reader.prefixForward(length);
@@ -2006,7 +2414,7 @@ public final class ScannerImpl implements Scanner {
         // to a start-escape, scan the escaped sequence, then return.
         int length = 0;
         int c = reader.peek(length);
-        while (CharConstants.URI_CHARS.has(c)) {
+        while (CharClass.is(c, CharClass.URI)) {
             if (c == '%') {
                 chunks.append(reader.prefixForward(length));
                 length = 0;
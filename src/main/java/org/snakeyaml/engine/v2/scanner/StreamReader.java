@@ -16,14 +16,22 @@
 package org.snakeyaml.engine.v2.scanner;
 
 import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.YamlUnicodeReader;
 import org.snakeyaml.engine.v2.common.CharConstants;
+import org.snakeyaml.engine.v2.common.ScalarInternPolicy;
 import org.snakeyaml.engine.v2.exceptions.Mark;
+import org.snakeyaml.engine.v2.exceptions.MarkDataSource;
 import org.snakeyaml.engine.v2.exceptions.ReaderException;
 import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -33,11 +41,41 @@ import java.util.Optional;
  */
 public final class StreamReader {
     private String name;
-    private final Reader stream;
+    private Reader stream;
     /**
-     * Read data (as a moving window for input stream)
+     * Bytes to decode as UTF-8 (null when the data comes from the Reader)
      */
+    private ByteInput bytes;
+    /**
+     * Characters to read directly (null when the data comes from the Reader or from the bytes)
+     */
+    private CharSequence chars;
+    private int charsPosition;
+    /**
+     * The index in the chars of the code point at the charsPointer position in the window
+     * (it is moved only when a slice is requested)
+     */
+    private int charsIndex;
+    private int charsPointer;
+    private boolean encodingChecked;
+    /**
+     * Provides the window to the marks (null when no mark is created for the current window).
+     * The window is released when its data is moved or replaced, then the marks keep only the lines
+     * around them instead of the whole windows.
+     * When the mark data is retained, the window is kept for the marks and it is never moved.
+     */
+    private MarkDataSource markData;
+    /**
+     * Read data (as a moving window for input stream). Only one of the arrays is used - the narrowest one
+     * which can keep all the code points read so far (Latin-1, BMP or any code point)
+     */
+    private byte[] latin1Window;
+    private char[] bmpWindow;
     private int[] dataWindow;
+    /**
+     * The largest code point which can be kept in the used window
+     */
+    private int windowLimit;
 
     /**
      * Real length of the data in dataWindow
@@ -57,22 +95,121 @@ public final class StreamReader {
     private int line = 0;
     private int column = 0; //in code points
     private int bufferSize;
-    private char[] buffer; // temp buffer for one read operation (to avoid creating the array in stack)
+    private char[] buffer; // temp buffer for one read operation from the Reader (created when it is used)
     private boolean useMarks;
+    private boolean retainMarkData;
+    private boolean useScalarSlices;
+    private ScalarInternPolicy scalarInternPolicy;
+    /**
+     * The shared scalars by the hash code (null when the scalars are not shared). Every hash code has
+     * two slots, the recently used scalar is in the first one
+     */
+    private String[] internTable;
 
     public StreamReader(Reader reader, LoadSettings loadSettings) {
         this.name = loadSettings.getLabel();
-        this.dataWindow = new int[0];
+        this.latin1Window = new byte[0];
+        this.windowLimit = 0xFF;
         this.dataLength = 0;
         this.stream = reader;
         this.eof = false;
         this.bufferSize = loadSettings.getBufferSize();
-        this.buffer = new char[bufferSize];
         this.useMarks = loadSettings.getUseMarks();
+        this.retainMarkData = loadSettings.getRetainMarkData();
+        this.useScalarSlices = loadSettings.getUseScalarSlices();
+        this.scalarInternPolicy = loadSettings.getScalarInternPolicy();
+        if (scalarInternPolicy != ScalarInternPolicy.NONE) {
+            int capacity = 2;
+            while (capacity < loadSettings.getScalarInternCapacity() && capacity < (1 << 30)) {
+                capacity <<= 1;
+            }
+            this.internTable = new String[capacity];
+        }
     }
 
     public StreamReader(String stream, LoadSettings loadSettings) {
-        this(new StringReader(stream), loadSettings);
+        this((CharSequence) stream, loadSettings);
+    }
+
+    /**
+     * Read the characters without copying them into a temporary buffer. The data must not be changed
+     * until it is read.
+     *
+     * @param stream       - the data to read (BOM must not be present)
+     * @param loadSettings - configuration
+     */
+    public StreamReader(CharSequence stream, LoadSettings loadSettings) {
+        this((Reader) null, loadSettings);
+        this.chars = stream;
+    }
+
+    /**
+     * Read the part of the array without copying it into a temporary buffer. The data must not be changed
+     * until it is read.
+     *
+     * @param stream       - the data to read (BOM must not be present)
+     * @param offset       - the index of the first char to read
+     * @param length       - the number of chars to read
+     * @param loadSettings - configuration
+     */
+    public StreamReader(char[] stream, int offset, int length, LoadSettings loadSettings) {
+        this(CharBuffer.wrap(stream, offset, length), loadSettings);
+    }
+
+    /**
+     * Read a part of the stream. The part must start at the beginning of a line,
+     * the position is counted from the beginning of the whole stream
+     *
+     * @param stream       - the part of the stream
+     * @param loadSettings - configuration
+     * @param index        - the index of the first code point of the part
+     * @param line         - the line where the part starts
+     */
+    public StreamReader(CharSequence stream, LoadSettings loadSettings, int index, int line) {
+        this(stream, loadSettings);
+        this.index = index;
+        this.line = line;
+    }
+
+    /**
+     * Read the bytes from the stream. UTF-8 is decoded directly into the data window,
+     * other encodings must be indicated with BOM (as for {@link YamlUnicodeReader})
+     *
+     * @param stream       - the bytes to read
+     * @param loadSettings - configuration
+     */
+    public StreamReader(InputStream stream, LoadSettings loadSettings) {
+        this(ByteInput.of(stream, loadSettings.getBufferSize()), loadSettings);
+    }
+
+    /**
+     * Read the bytes between the position and the limit of the buffer. The buffer itself is not changed.
+     * UTF-8 is decoded directly into the data window, other encodings must be indicated with BOM
+     * (as for {@link YamlUnicodeReader})
+     *
+     * @param bytes        - the data to read
+     * @param loadSettings - configuration
+     */
+    public StreamReader(ByteBuffer bytes, LoadSettings loadSettings) {
+        this(ByteInput.of(bytes), loadSettings);
+    }
+
+    /**
+     * Read the file from the current position of the channel. The file is memory-mapped region by region,
+     * the position of the channel is not changed (unless the data is not in UTF-8).
+     * UTF-8 is decoded directly into the data window, other encodings must be indicated with BOM
+     * (as for {@link YamlUnicodeReader})
+     *
+     * @param channel      - the file to read. It must stay open until all the data is read
+     * @param loadSettings - configuration
+     */
+    public StreamReader(FileChannel channel, LoadSettings loadSettings) {
+        this(ByteInput.of(channel, ByteInput.MAPPING_WINDOW), loadSettings);
+    }
+
+    StreamReader(ByteInput bytes, LoadSettings loadSettings) {
+        this((Reader) null, loadSettings);
+        this.bytes = bytes;
     }
 
     public static final boolean isPrintable(final String data) {
@@ -95,10 +232,14 @@ public final class StreamReader {
     }
 
     public Optional<Mark> getMark() {
-        if (useMarks)
-            return Optional.of(new Mark(name, this.index, this.line, this.column, this.dataWindow, this.pointer));
-        else
+        if (useMarks) {
+            if (markData == null) {
+                markData = new MarkDataSource(window(), retainMarkData);
+            }
+            return Optional.of(markData.createMark(name, this.index, this.line, this.column, this.pointer));
+        } else {
             return Optional.empty();
+        }
     }
 
     public void forward() {
@@ -113,11 +254,11 @@ public final class StreamReader {
      */
     public void forward(int length) {
         for (int i = 0; i < length && ensureEnoughData(); i++) {
-            int c = dataWindow[pointer++];
+            int c = codePointAt(pointer++);
             this.index++;
             if (CharConstants.LINEBR.has(c)
                     // do not count CR if it is followed by LF
-                    || (c == '\r' && (ensureEnoughData() && dataWindow[pointer] != '\n'))) {
+                    || (c == '\r' && (ensureEnoughData() && codePointAt(pointer) != '\n'))) {
                 this.line++;
                 this.column = 0;
             } else if (c != 0xFEFF) {
@@ -127,7 +268,7 @@ public final class StreamReader {
     }
 
     public int peek() {
-        return (ensureEnoughData()) ? dataWindow[pointer] : '\0';
+        return (ensureEnoughData()) ? codePointAt(pointer) : '\0';
     }
 
     /**
@@ -137,7 +278,7 @@ public final class StreamReader {
      * @return the next index-th code point
      */
     public int peek(int index) {
-        return (ensureEnoughData(index)) ? dataWindow[pointer + index] : '\0';
+        return (ensureEnoughData(index)) ? codePointAt(pointer + index) : '\0';
     }
 
     /**
@@ -150,9 +291,19 @@ public final class StreamReader {
         if (length == 0) {
             return "";
         } else if (ensureEnoughData(length)) {
-            return new String(this.dataWindow, pointer, length);
+            return substring(pointer, length);
+        } else {
+            return substring(pointer, Math.min(length, dataLength - pointer));
+        }
+    }
+
+    private String substring(int start, int length) {
+        if (latin1Window != null) {
+            return new String(latin1Window, start, length, StandardCharsets.ISO_8859_1);
+        } else if (bmpWindow != null) {
+            return new String(bmpWindow, start, length);
         } else {
-            return new String(this.dataWindow, pointer, Math.min(length, dataLength - pointer));
+            return new String(dataWindow, start, length);
         }
     }
 
@@ -171,12 +322,197 @@ public final class StreamReader {
         return prefix;
     }
 
+    /**
+     * prefixForward(length) which does not copy the data. When the data is a CharSequence and the slices are
+     * enabled, it returns a view of the data. Otherwise it returns the String.
+     *
+     * @param length amount of characters to get (the characters must not contain new line characters)
+     * @return the next length code points
+     */
+    public CharSequence sliceForward(int length) {
+        if (!useScalarSlices || chars == null || length == 0 || !ensureEnoughData(length - 1)) {
+            return prefixForward(length);
+        }
+        final int start = charsIndexAt(pointer);
+        final int end = charsIndexAt(pointer + length);
+        this.pointer += length;
+        this.index += length;
+        // the slice never contains new line characters
+        this.column += length;
+        return CharBuffer.wrap(chars, start, end);
+    }
+
+    /**
+     * prefixForward(length) which returns the same String for the same code points. The String is looked up
+     * in the table by the code points in the window, it is created only when it is not found.
+     *
+     * @param length amount of characters to get (the characters must not contain new line characters)
+     * @return the next length code points
+     */
+    public String prefixForwardInterned(int length) {
+        if (internTable == null || length == 0 || !ensureEnoughData(length - 1)) {
+            return prefixForward(length);
+        }
+        // the same hash code as String.hashCode()
+        int hash = 0;
+        int charLength = 0;
+        for (int i = pointer; i < pointer + length; i++) {
+            int c = codePointAt(i);
+            if (Character.isBmpCodePoint(c)) {
+                hash = 31 * hash + c;
+                charLength++;
+            } else {
+                hash = 31 * (31 * hash + Character.highSurrogate(c)) + Character.lowSurrogate(c);
+                charLength += 2;
+            }
+        }
+        final int slot = (hash ^ (hash >>> 16)) & (internTable.length - 2);
+        String value = internTable[slot];
+        if (!prefixEquals(value, hash, charLength)) {
+            String other = internTable[slot + 1];
+            value = prefixEquals(other, hash, charLength) ? other : substring(pointer, length);
+            internTable[slot + 1] = internTable[slot];
+            internTable[slot] = value;
+        }
+        this.pointer += length;
+        this.index += length;
+        this.column += length;
+        return value;
+    }
+
+    private boolean prefixEquals(String value, int hash, int charLength) {
+        if (value == null || value.hashCode() != hash || value.length() != charLength) {
+            return false;
+        }
+        int i = pointer;
+        for (int j = 0; j < value.length(); i++) {
+            int c = value.codePointAt(j);
+            if (codePointAt(i) != c) {
+                return false;
+            }
+            j += Character.charCount(c);
+        }
+        return true;
+    }
+
+    ScalarInternPolicy getScalarInternPolicy() {
+        return scalarInternPolicy;
+    }
+
+    /**
+     * Count the code points before the first one of the given code points or a line break
+     * ('\n', '\r', '\u0085', '\u2028', '\u2029'). The window is scanned directly instead of peeking
+     * every code point, it is extended only when the run reaches its end.
+     *
+     * @param first  - the code point which ends the run
+     * @param second - another code point which ends the run
+     * @return the number of the code points in the run (up to the end of the data)
+     */
+    int countUntil(int first, int second) {
+        return count(0, first, second, true);
+    }
+
+    /**
+     * Count the code points from the given position up to the end of the line. Only '\n' ends the line,
+     * the same way as for the scanner. The window is scanned directly, like in countUntil()
+     *
+     * @param from - the position to start from (relative to the current one)
+     * @return the number of the code points in the line (up to the end of the data)
+     */
+    int lineLength(int from) {
+        return count(from, '\n', '\n', false);
+    }
+
+    private int count(int from, int first, int second, boolean allBreaks) {
+        int length = from;
+        while (ensureEnoughData(length)) {
+            // the pointer may be moved when the window is extended
+            int i = pointer + length;
+            final int end = dataLength;
+            if (latin1Window != null) {
+                final byte[] window = latin1Window;
+                while (i < end && !isRunEnd(window[i] & 0xFF, first, second, allBreaks)) {
+                    i++;
+                }
+            } else if (bmpWindow != null) {
+                final char[] window = bmpWindow;
+                while (i < end && !isRunEnd(window[i], first, second, allBreaks)) {
+                    i++;
+                }
+            } else {
+                final int[] window = dataWindow;
+                while (i < end && !isRunEnd(window[i], first, second, allBreaks)) {
+                    i++;
+                }
+            }
+            length = i - pointer;
+            if (i < end) {
+                break;
+            }
+        }
+        return length - from;
+    }
+
+    private static boolean isRunEnd(int c, int first, int second, boolean allBreaks) {
+        return c == first || c == second || allBreaks && (c == '\n' || c == '\r'
+                || c == '\u0085' || c == '\u2028' || c == '\u2029');
+    }
+
+    /**
+     * prefixForward(length) which appends the code points to the builder instead of creating a String
+     *
+     * @param builder - the destination
+     * @param length  - amount of characters to append (the characters must not contain new line characters)
+     */
+    void appendForward(StringBuilder builder, int length) {
+        if (length == 0) {
+            return;
+        }
+        ensureEnoughData(length - 1);
+        final int end = Math.min(pointer + length, dataLength);
+        if (latin1Window != null) {
+            for (int i = pointer; i < end; i++) {
+                builder.append((char) (latin1Window[i] & 0xFF));
+            }
+        } else if (bmpWindow != null) {
+            builder.append(bmpWindow, pointer, end - pointer);
+        } else {
+            for (int i = pointer; i < end; i++) {
+                builder.appendCodePoint(dataWindow[i]);
+            }
+        }
+        this.pointer += length;
+        this.index += length;
+        this.column += length;
+    }
+
+    /**
+     * Find the index in the chars of the code point in the window. The code points are counted from
+     * the previous position, so the position must not go back.
+     *
+     * @param position - the position in the window (not before the previous position)
+     * @return the index in the chars
+     */
+    private int charsIndexAt(int position) {
+        if (dataWindow != null) {
+            // a supplementary code point takes two chars
+            for (int i = charsPointer; i < position; i++) {
+                charsIndex += Character.charCount(dataWindow[i]);
+            }
+        } else {
+            charsIndex += position - charsPointer;
+        }
+        charsPointer = position;
+        return charsIndex;
+    }
+
     private boolean ensureEnoughData() {
         return ensureEnoughData(0);
     }
 
     private boolean ensureEnoughData(int size) {
-        if (!eof && pointer + size >= dataLength) {
+        // a single read may return less data than requested
+        while (!eof && pointer + size >= dataLength) {
             update();
         }
         return (this.pointer + size) < dataLength;
@@ -184,44 +520,432 @@ public final class StreamReader {
 
     private void update() {
         try {
-            int read = stream.read(buffer, 0, bufferSize - 1);
-            if (read > 0) {
-                int cpIndex = (dataLength - pointer);
-                dataWindow = Arrays.copyOfRange(dataWindow, pointer, dataLength + read);
-
-                if (Character.isHighSurrogate(buffer[read - 1])) {
-                    if (stream.read(buffer, read, 1) == -1) {
-                        eof = true;
-                    } else {
-                        read++;
-                    }
+            if (bytes != null) {
+                updateFromBytes();
+            } else if (chars != null) {
+                updateFromChars();
+            } else {
+                updateFromReader();
+            }
+        } catch (IOException ioe) {
+            throw new YamlEngineException(ioe);
+        }
+    }
+
+    private void updateFromReader() throws IOException {
+        if (buffer == null) {
+            buffer = new char[bufferSize];
+        }
+        int read = stream.read(buffer, 0, bufferSize - 1);
+        if (read > 0) {
+            if (Character.isHighSurrogate(buffer[read - 1])) {
+                if (stream.read(buffer, read, 1) == -1) {
+                    eof = true;
+                } else {
+                    read++;
                 }
+            }
+            prepareWindow(read);
+            int cpIndex = dataLength;
 
-                int nonPrintable = ' ';
-                int i = 0;
-                while (i < read) {
-                    int codePoint = Character.codePointAt(buffer, i);
-                    dataWindow[cpIndex] = codePoint;
-                    if (isPrintable(codePoint)) {
-                        i += Character.charCount(codePoint);
-                    } else {
-                        nonPrintable = codePoint;
-                        i = read;
-                    }
-                    cpIndex++;
+            int nonPrintable = ' ';
+            int i = 0;
+            while (i < read) {
+                int codePoint = Character.codePointAt(buffer, i);
+                store(cpIndex, codePoint);
+                if (isPrintable(codePoint)) {
+                    i += Character.charCount(codePoint);
+                } else {
+                    nonPrintable = codePoint;
+                    i = read;
                 }
+                cpIndex++;
+            }
+
+            dataLength = cpIndex;
+            if (nonPrintable != ' ') {
+                throw new ReaderException(name, cpIndex - 1 - pointer, nonPrintable, "special characters are not allowed");
+            }
+        } else {
+            eof = true;
+        }
+    }
+
+    /**
+     * Copy the next part of the characters into the data window (the same amount as for the Reader)
+     */
+    private void updateFromChars() {
+        final int length = chars.length();
+        int end = Math.min(length, charsPosition + bufferSize - 1);
+        if (end > charsPosition) {
+            if (end < length && Character.isHighSurrogate(chars.charAt(end - 1))) {
+                end++;
+            }
+            prepareWindow(end - charsPosition);
+            int cpIndex = dataLength;
 
-                dataLength = cpIndex;
-                pointer = 0;
-                if (nonPrintable != ' ') {
-                    throw new ReaderException(name, cpIndex - 1, nonPrintable, "special characters are not allowed");
+            int nonPrintable = ' ';
+            int i = charsPosition;
+            while (i < end) {
+                int codePoint = chars.charAt(i);
+                if (Character.isHighSurrogate((char) codePoint) && i + 1 < end
+                        && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    codePoint = Character.toCodePoint((char) codePoint, chars.charAt(i + 1));
+                }
+                store(cpIndex, codePoint);
+                if (isPrintable(codePoint)) {
+                    i += Character.charCount(codePoint);
+                } else {
+                    nonPrintable = codePoint;
+                    i = end;
                 }
+                cpIndex++;
+            }
+
+            charsPosition = end;
+            dataLength = cpIndex;
+            if (nonPrintable != ' ') {
+                throw new ReaderException(name, cpIndex - 1 - pointer, nonPrintable, "special characters are not allowed");
+            }
+        } else {
+            eof = true;
+        }
+    }
+
+    /**
+     * Make room for the code points to be added after the unread data. The window is reused when possible:
+     * the new data is appended or the unread data is moved to the beginning. The window is released
+     * for the marks before it is moved (the marks copy the lines around them, they would show wrong data).
+     * Appending is fine, the Mark only sees more of the following data. So in the steady state no window
+     * is allocated, also with the marks. Only when the mark data is retained every refill after a mark
+     * needs a new window.
+     * The unused part of the window is always filled with zeros (the end of the data for the Mark).
+     *
+     * @param size - the maximum amount of code points to add
+     */
+    private void prepareWindow(int size) {
+        final int length = windowLength();
+        if (dataLength + size <= length) {
+            return;
+        }
+        final int unread = dataLength - pointer;
+        final Object window = window();
+        if (chars != null) {
+            // the unread data is moved to the beginning of the window
+            charsIndexAt(pointer);
+            charsPointer = 0;
+        }
+        final boolean retained = retainMarkData && markData != null;
+        releaseWindow();
+        if (!retained && unread + size <= length) {
+            System.arraycopy(window, pointer, window, 0, unread);
+            clearWindow(unread, dataLength);
+        } else {
+            // double the size only when the lookahead outgrows the window,
+            // to copy each code point only a few times when the lookahead is long
+            final int needed = unread + size;
+            final int capacity = Math.max(needed > length ? 2 * needed : needed, bufferSize + 1);
+            if (latin1Window != null) {
+                latin1Window = new byte[capacity];
+            } else if (bmpWindow != null) {
+                bmpWindow = new char[capacity];
             } else {
-                eof = true;
+                dataWindow = new int[capacity];
             }
-        } catch (IOException ioe) {
-            throw new YamlEngineException(ioe);
+            System.arraycopy(window, pointer, window(), 0, unread);
+        }
+        dataLength = unread;
+        pointer = 0;
+    }
+
+    private Object window() {
+        if (latin1Window != null) {
+            return latin1Window;
+        } else if (bmpWindow != null) {
+            return bmpWindow;
+        } else {
+            return dataWindow;
+        }
+    }
+
+    private int windowLength() {
+        if (latin1Window != null) {
+            return latin1Window.length;
+        } else if (bmpWindow != null) {
+            return bmpWindow.length;
+        } else {
+            return dataWindow.length;
+        }
+    }
+
+    private void clearWindow(int from, int to) {
+        if (latin1Window != null) {
+            Arrays.fill(latin1Window, from, to, (byte) 0);
+        } else if (bmpWindow != null) {
+            Arrays.fill(bmpWindow, from, to, '\0');
+        } else {
+            Arrays.fill(dataWindow, from, to, 0);
+        }
+    }
+
+    private int codePointAt(int i) {
+        if (latin1Window != null) {
+            return latin1Window[i] & 0xFF;
+        } else if (bmpWindow != null) {
+            return bmpWindow[i];
+        } else {
+            return dataWindow[i];
+        }
+    }
+
+    private void store(int i, int codePoint) {
+        if (codePoint > windowLimit) {
+            widen(codePoint);
+        }
+        if (latin1Window != null) {
+            latin1Window[i] = (byte) codePoint;
+        } else if (bmpWindow != null) {
+            bmpWindow[i] = (char) codePoint;
+        } else {
+            dataWindow[i] = codePoint;
+        }
+    }
+
+    /**
+     * Copy the window into the wider array to keep the code point. The window is never made narrow again.
+     *
+     * @param codePoint - the code point which does not fit into the current window
+     */
+    private void widen(int codePoint) {
+        final int length = windowLength();
+        if (codePoint <= 0xFFFF) {
+            final char[] window = new char[length];
+            for (int i = 0; i < length; i++) {
+                window[i] = (char) (latin1Window[i] & 0xFF);
+            }
+            bmpWindow = window;
+            windowLimit = 0xFFFF;
+        } else {
+            final int[] window = new int[length];
+            for (int i = 0; i < length; i++) {
+                window[i] = codePointAt(i);
+            }
+            dataWindow = window;
+            bmpWindow = null;
+            windowLimit = Character.MAX_CODE_POINT;
+        }
+        latin1Window = null;
+        if (markData != null) {
+            // the code points keep their positions
+            markData.setData(window());
+        }
+    }
+
+    /**
+     * The marks created so far keep only the lines around them (unless the data is retained for them)
+     */
+    private void releaseWindow() {
+        if (markData != null) {
+            if (!retainMarkData) {
+                markData.release();
+            }
+            markData = null;
+        }
+    }
+
+    /**
+     * Decode UTF-8 into the data window and check that the code points are printable in the same pass.
+     * The amount of data for every update is the same as for the Reader (bufferSize - 1 chars)
+     */
+    private void updateFromBytes() throws IOException {
+        if (!encodingChecked) {
+            encodingChecked = true;
+            if (!skipUtf8Bom()) {
+                // UTF-16 and UTF-32 are rare, they are decoded by the Reader
+                stream = new YamlUnicodeReader(bytes.toInputStream());
+                bytes = null;
+                updateFromReader();
+                return;
+            }
+        }
+        final int limit = bufferSize - 1;
+        prepareWindow(limit + 1);
+        final int first = dataLength;
+        int cpIndex = first;
+        int units = 0; // in chars, to keep the surrogate pairs
+        int nonPrintableIndex = -1;
+        ByteBuffer in = bytes.getBuffer();
+        while (units < limit) {
+            if (in.remaining() < ByteInput.MAX_SEQUENCE) {
+                bytes.require(ByteInput.MAX_SEQUENCE);
+                in = bytes.getBuffer();
+                if (!in.hasRemaining()) {
+                    break;
+                }
+            }
+            // the fast path for printable ASCII
+            int position = in.position();
+            final int stop = position + Math.min(in.remaining(), limit - units);
+            final int start = cpIndex;
+            final byte[] latin1 = latin1Window;
+            int b = 0;
+            while (position < stop && (b = in.get(position)) >= 0x20 && b < 0x7F) {
+                if (latin1 != null) {
+                    latin1[cpIndex] = (byte) b;
+                } else {
+                    store(cpIndex, b);
+                }
+                cpIndex++;
+                position++;
+            }
+            units += cpIndex - start;
+            if (position == stop) {
+                in.position(position);
+                continue;
+            }
+            int codePoint;
+            if (b >= 0) {
+                codePoint = b;
+                position++;
+            } else if (in.limit() - position < ByteInput.MAX_SEQUENCE && !bytes.isEnd()) {
+                // the sequence may be split, read more before decoding it
+                in.position(position);
+                continue;
+            } else {
+                int sequence = decodeSequence(in, position);
+                if (sequence < 0) {
+                    if (cpIndex > first && isTruncated(in, position, -sequence)) {
+                        // the incomplete sequence at the end is reported with the next update
+                        in.position(position);
+                        break;
+                    }
+                    throw new YamlEngineException(new MalformedInputException(-sequence));
+                }
+                codePoint = sequence & 0xFFFFFF;
+                position += sequence >>> 24;
+            }
+            in.position(position);
+            if (nonPrintableIndex == -1 && !isPrintable(codePoint)) {
+                // keep decoding to report malformed input in the same way as the Reader
+                nonPrintableIndex = cpIndex;
+            }
+            store(cpIndex++, codePoint);
+            units += Character.charCount(codePoint);
+        }
+        if (cpIndex == first) {
+            eof = true;
+            return;
+        }
+        if (nonPrintableIndex != -1) {
+            dataLength = nonPrintableIndex + 1;
+            throw new ReaderException(name, nonPrintableIndex - pointer, codePointAt(nonPrintableIndex),
+                    "special characters are not allowed");
+        }
+        dataLength = cpIndex;
+    }
+
+    /**
+     * Skip UTF-8 BOM
+     *
+     * @return false if BOM indicates UTF-16 or UTF-32
+     * @throws IOException if the data cannot be read
+     */
+    private boolean skipUtf8Bom() throws IOException {
+        bytes.require(4);
+        ByteBuffer in = bytes.getBuffer();
+        int position = in.position();
+        int available = in.remaining();
+        int b0 = available > 0 ? in.get(position) & 0xFF : -1;
+        int b1 = available > 1 ? in.get(position + 1) & 0xFF : -1;
+        int b2 = available > 2 ? in.get(position + 2) & 0xFF : -1;
+        int b3 = available > 3 ? in.get(position + 3) & 0xFF : -1;
+        if (b0 == 0xEF && b1 == 0xBB && b2 == 0xBF) {
+            in.position(position + 3);
+            return true;
+        }
+        return !((b0 == 0xFE && b1 == 0xFF) || (b0 == 0xFF && b1 == 0xFE)
+                || (b0 == 0x00 && b1 == 0x00 && b2 == 0xFE && b3 == 0xFF));
+    }
+
+    /**
+     * Check whether the malformed input is a valid beginning of a sequence cut by the end of the data
+     */
+    private boolean isTruncated(ByteBuffer in, int position, int malformedLength) {
+        int b1 = in.get(position) & 0xFF;
+        return bytes.isEnd() && malformedLength == in.limit() - position && b1 >= 0xC2 && b1 <= 0xF4;
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * Decode the multi-byte UTF-8 sequence. Malformed input is detected in the same way
+     * as it is done by the JDK decoder (to report the same length).
+     *
+     * @param in       - the bytes (the complete sequence is available unless the end of the data is reached)
+     * @param position - the first byte of the sequence
+     * @return the length of the sequence in the highest byte and the code point in the lower 3 bytes
+     * or the negative length of malformed input
+     */
+    private static int decodeSequence(ByteBuffer in, int position) {
+        final int available = in.limit() - position;
+        final int b1 = in.get(position) & 0xFF;
+        if (b1 >= 0xC2 && b1 <= 0xDF) {
+            if (available < 2) {
+                return -available;
+            }
+            int b2 = in.get(position + 1) & 0xFF;
+            if (!isContinuation(b2)) {
+                return -1;
+            }
+            return (2 << 24) | ((b1 & 0x1F) << 6) | (b2 & 0x3F);
+        } else if ((b1 & 0xF0) == 0xE0) {
+            if (available < 2) {
+                return -available;
+            }
+            int b2 = in.get(position + 1) & 0xFF;
+            if ((b1 == 0xE0 && (b2 & 0xE0) == 0x80) || !isContinuation(b2)) {
+                return -1;
+            }
+            if (available < 3) {
+                return -available;
+            }
+            int b3 = in.get(position + 2) & 0xFF;
+            if (!isContinuation(b3)) {
+                return -2;
+            }
+            int codePoint = ((b1 & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+            if (Character.isSurrogate((char) codePoint)) {
+                return -3;
+            }
+            return (3 << 24) | codePoint;
+        } else if (b1 >= 0xF0 && b1 <= 0xF4) {
+            if (available < 2) {
+                return -available;
+            }
+            int b2 = in.get(position + 1) & 0xFF;
+            if ((b1 == 0xF0 && (b2 < 0x90 || b2 > 0xBF)) || (b1 == 0xF4 && (b2 & 0xF0) != 0x80)
+                    || !isContinuation(b2)) {
+                return -1;
+            }
+            if (available < 3) {
+                return -available;
+            }
+            int b3 = in.get(position + 2) & 0xFF;
+            if (!isContinuation(b3)) {
+                return -2;
+            }
+            if (available < 4) {
+                return -available;
+            }
+            int b4 = in.get(position + 3) & 0xFF;
+            if (!isContinuation(b4)) {
+                return -3;
+            }
+            return (4 << 24) | ((b1 & 0x07) << 18) | ((b2 & 0x3F) << 12) | ((b3 & 0x3F) << 6) | (b4 & 0x3F);
         }
+        return -1;
     }
 
 
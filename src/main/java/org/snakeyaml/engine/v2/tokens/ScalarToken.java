@@ -21,7 +21,7 @@ import org.snakeyaml.engine.v2.exceptions.Mark;
 import java.util.Optional;
 
 public final class ScalarToken extends Token {
-    private final String value;
+    private final CharSequence value;
     private final boolean plain;
     private final ScalarStyle style;
 
@@ -30,6 +30,19 @@ public final class ScalarToken extends Token {
     }
 
     public ScalarToken(String value, boolean plain, ScalarStyle style, Optional<Mark> startMark, Optional<Mark> endMark) {
+        this((CharSequence) value, plain, style, startMark, endMark);
+    }
+
+    /**
+     * Create the token without creating the String
+     *
+     * @param value     - the value (it may be a view of the data which is being read)
+     * @param plain     - true for the plain scalar
+     * @param style     - the style of the scalar
+     * @param startMark - the beginning of the token
+     * @param endMark   - the end of the token
+     */
+    public ScalarToken(CharSequence value, boolean plain, ScalarStyle style, Optional<Mark> startMark, Optional<Mark> endMark) {
         super(startMark, endMark);
         this.value = value;
         this.plain = plain;
@@ -42,6 +55,13 @@ public final class ScalarToken extends Token {
     }
 
     public String getValue() {
+        return this.value.toString();
+    }
+
+    /**
+     * @return the value without creating the String (it may be a view of the data which is being read)
+     */
+    public CharSequence getCharSequence() {
         return this.value;
     }
 
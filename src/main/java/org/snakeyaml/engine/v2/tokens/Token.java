@@ -44,9 +44,32 @@ public abstract class Token {
         Value(":"); //NOSONAR
 
         private final String description;
+        private final long mask;
 
         ID(String s) {
             description = s;
+            mask = 1L << ordinal();
+        }
+
+        /**
+         * @return the bit of this ID in a mask of IDs
+         */
+        public long getMask() {
+            return mask;
+        }
+
+        /**
+         * Create a mask to check the IDs without a varargs array
+         *
+         * @param ids - the IDs in the mask
+         * @return the bits of the given IDs
+         */
+        public static long maskOf(ID... ids) {
+            long mask = 0;
+            for (ID id : ids) {
+                mask |= id.mask;
+            }
+            return mask;
         }
 
         @Override
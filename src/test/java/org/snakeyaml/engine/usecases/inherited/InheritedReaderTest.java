@@ -57,4 +57,26 @@ public class InheritedReaderTest extends InheritedImportTest {
             }
         }
     }
+
+    @Test
+    @DisplayName("Reader errors when the bytes are decoded by StreamReader")
+    public void testByteReaderUnicodeErrors() throws IOException {
+        File[] inputs = getStreamsByExtension(".stream-error");
+        for (int i = 0; i < inputs.length; i++) {
+            InputStream input = new FileInputStream(inputs[i]);
+            StreamReader stream = new StreamReader(input, LoadSettings.builder().build());
+            try {
+                while (stream.peek() != '\u0000') {
+                    stream.forward();
+                }
+                fail("Invalid stream must not be accepted: " + inputs[i].getAbsolutePath());
+            } catch (ReaderException e) {
+                assertTrue(e.toString().contains(" special characters are not allowed"), e.toString());
+            } catch (YamlEngineException e) {
+                assertTrue(e.toString().contains("MalformedInputException"), e.toString());
+            } finally {
+                input.close();
+            }
+        }
+    }
 }
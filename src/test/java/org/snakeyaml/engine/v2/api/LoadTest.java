@@ -18,11 +18,28 @@ package org.snakeyaml.engine.v2.api;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.snakeyaml.engine.v2.common.ScalarInternPolicy;
+import org.snakeyaml.engine.v2.constructor.StandardConstructor;
+import org.snakeyaml.engine.v2.exceptions.ComposerException;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -43,6 +60,138 @@ class LoadTest {
         assertEquals("a", str);
     }
 
+    @Test
+    @DisplayName("CharSequence and char[] are parsed")
+    void parseCharSequence() {
+        LoadSettings settings = LoadSettings.builder().build();
+        Map<String, Object> map = (Map<String, Object>) new Load(settings).loadFromCharSequence(new StringBuilder("a: 1"));
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        char[] data = "--- abc\n--- def".toCharArray();
+        assertEquals("def", new Load(settings).loadFromCharArray(data, 8, 7));
+        Iterator<Object> all = new Load(settings).loadAllFromCharSequence(CharBuffer.wrap(data)).iterator();
+        assertTrue(all.hasNext());
+        assertEquals("abc", all.next());
+        assertTrue(all.hasNext());
+        assertEquals("def", all.next());
+        assertFalse(all.hasNext());
+    }
+
+    @Test
+    @DisplayName("Load all the documents in parallel")
+    void loadAllParallel() {
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            yaml.append("--- {id: ").append(i).append("}\n");
+        }
+        LoadSettings settings = LoadSettings.builder().build();
+        List<Object> documents = new Load(settings).loadAllParallel(yaml).collect(Collectors.toList());
+        assertEquals(1000, documents.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), ((Map<String, Object>) documents.get(i)).get("id"));
+        }
+        // the custom constructor is not thread-safe, the documents are loaded sequentially
+        Load custom = new Load(settings, new StandardConstructor(settings));
+        assertEquals(documents, custom.loadAllParallel(yaml).collect(Collectors.toList()));
+        YamlEngineException exception = assertThrows(YamlEngineException.class, () ->
+                new Load(settings).loadAllParallel("--- a\n--- [b\n--- c\n").count());
+        assertTrue(exception.getMessage().contains("line 3, column 1"), exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Load all the documents in the pipeline")
+    void loadAllPipelined() {
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            yaml.append("--- {id: ").append(i).append("}\n");
+        }
+        yaml.append("--- [invalid\n");
+        LoadSettings settings = LoadSettings.builder().build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Iterator<Object> documents = new Load(settings).loadAllPipelined(yaml, executor, 8).iterator();
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(documents.hasNext());
+                assertEquals(Integer.valueOf(i), ((Map<String, Object>) documents.next()).get("id"));
+            }
+            // the error is reported after all the valid documents
+            assertThrows(YamlEngineException.class, documents::hasNext);
+            assertFalse(documents.hasNext());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Load the files concurrently")
+    void loadFiles() throws IOException {
+        Path directory = Files.createTempDirectory("snakeyaml");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Path file = directory.resolve("file" + i + ".yaml");
+            Files.write(file, ("id: " + i).getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        Files.write(files.get(5), "[invalid".getBytes(StandardCharsets.UTF_8));
+        files.add(directory.resolve("missing.yaml"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<LoadResult> results = new Load(LoadSettings.builder().build()).loadFiles(files, executor);
+            assertEquals(21, results.size());
+            for (int i = 0; i < 20; i++) {
+                LoadResult result = results.get(i);
+                assertEquals(files.get(i), result.getPath());
+                if (i == 5) {
+                    assertFalse(result.isSuccess());
+                    assertThrows(YamlEngineException.class, result::getValue);
+                } else {
+                    assertTrue(result.isSuccess(), result.toString());
+                    assertEquals(Integer.valueOf(i), ((Map<String, Object>) result.getValue()).get("id"));
+                }
+            }
+            assertTrue(results.get(20).getError().get().getCause() instanceof IOException);
+        } finally {
+            executor.shutdown();
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    @DisplayName("A file which is nested too deep does not stop the other files")
+    void loadFilesTooDeep() throws IOException {
+        Path directory = Files.createTempDirectory("snakeyaml");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Path file = directory.resolve("file" + i + ".yaml");
+            Files.write(file, ("id: " + i).getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            deep.append('[');
+        }
+        Files.write(files.get(1), deep.toString().getBytes(StandardCharsets.UTF_8));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<LoadResult> results = new Load(LoadSettings.builder().build()).loadFiles(files, executor);
+            assertEquals(3, results.size());
+            assertTrue(results.get(0).isSuccess(), results.get(0).toString());
+            assertFalse(results.get(1).isSuccess());
+            ComposerException exception = assertThrows(ComposerException.class, results.get(1)::getValue);
+            assertTrue(exception.getMessage().contains("exceeds the specified max=1000"), exception.getMessage());
+            assertTrue(results.get(2).isSuccess(), results.get(2).toString());
+            assertEquals(Integer.valueOf(2), ((Map<String, Object>) results.get(2).getValue()).get("id"));
+        } finally {
+            executor.shutdown();
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
     @Test
     @DisplayName("Integer 1 is parsed")
     void parseInteger() {
@@ -94,6 +243,31 @@ class LoadTest {
         assertEquals("aaa", v);
     }
 
+    @Test
+    @DisplayName("Load from Path")
+    void loadFromPath() {
+        LoadSettings settings = LoadSettings.builder().build();
+        Load load = new Load(settings);
+        Map<String, Object> v = (Map<String, Object>) load.loadFromPath(Paths.get("src/test/resources/env/docker-compose.yaml"));
+        assertTrue(v.containsKey("services"));
+    }
+
+    @Test
+    @DisplayName("Load all from FileChannel")
+    void loadAllFromChannel() throws IOException {
+        Path path = Paths.get("src/test/resources/comprehensive-test-suite-data/6ZKB/in.yaml");
+        try (FileChannel channel = FileChannel.open(path)) {
+            LoadSettings settings = LoadSettings.builder().build();
+            Load load = new Load(settings);
+            Iterator<Object> iter = load.loadAllFromChannel(channel).iterator();
+            assertTrue(iter.hasNext());
+            assertEquals("Document", iter.next());
+            assertTrue(iter.hasNext());
+            assertNull(iter.next());
+            assertTrue(iter.hasNext());
+        }
+    }
+
     @Test
     @DisplayName("Load from Reader")
     void loadFromReader() {
@@ -176,4 +350,37 @@ class LoadTest {
                 v.iterator().remove());
         assertEquals("Removing is not supported.", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Repeated keys and short scalars share the String")
+    void internScalars() {
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            yaml.append("- name\uD83D\uDE00: record ").append(i).append("\n  \"id\" : short\n  ")
+                    .append("description: a value which is longer than thirty two code points\n");
+        }
+        byte[] bytes = yaml.toString().getBytes(StandardCharsets.UTF_8);
+        LoadSettings shortScalars = LoadSettings.builder()
+                .setScalarInternPolicy(ScalarInternPolicy.SHORT_SCALARS, 16).build();
+        List<Map<String, String>> records = (List<Map<String, String>>) new Load(shortScalars)
+                .loadFromInputStream(new ByteArrayInputStream(bytes));
+        assertEquals(100, records.size());
+        Map<String, String> first = records.get(0);
+        for (Map<String, String> record : records) {
+            assertEquals(3, record.size());
+            Iterator<String> keys = record.keySet().iterator();
+            for (String key : first.keySet()) {
+                assertTrue(key == keys.next(), "The key is shared: " + key);
+            }
+            assertTrue(first.get("id") == record.get("id"), "Short scalar is shared");
+            assertEquals(first.get("description"), record.get("description"));
+        }
+        assertFalse(first.get("description") == records.get(1).get("description"), "Long scalar is not shared");
+
+        LoadSettings keysOnly = LoadSettings.builder().setScalarInternPolicy(ScalarInternPolicy.KEYS_ONLY, 16).build();
+        records = (List<Map<String, String>>) new Load(keysOnly).loadFromString(yaml.toString());
+        assertTrue(records.get(0).keySet().iterator().next() == records.get(1).keySet().iterator().next());
+        assertEquals("short", records.get(1).get("id"));
+        assertFalse(records.get(0).get("id") == records.get(1).get("id"), "Only the keys are shared");
+    }
 }
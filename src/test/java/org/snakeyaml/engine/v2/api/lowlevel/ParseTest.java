@@ -21,15 +21,19 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.snakeyaml.engine.v2.api.LoadSettings;
 import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.events.ScalarEvent;
 import org.snakeyaml.engine.v2.events.StreamEndEvent;
 import org.snakeyaml.engine.v2.events.StreamStartEvent;
 import org.snakeyaml.engine.v2.utils.TestUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Tag("fast")
 class ParseTest {
@@ -51,4 +55,36 @@ class ParseTest {
         assertEquals(2, list.size());
         TestUtils.compareEvents(Lists.newArrayList(new StreamStartEvent(), new StreamEndEvent()), list);
     }
+
+    @Test
+    void parseScalarSlices() {
+        String yaml = "{plain: 'single', \"double\": \"a b\", escaped: \"a\\tb\", 'it''s': two\n words, emoji: \"\uD83D\uDE00\", last: x}";
+        List<ScalarEvent> slices = new ArrayList<>();
+        List<ScalarEvent> strings = new ArrayList<>();
+        for (Event event : new Parse(LoadSettings.builder().setUseScalarSlices(true).build()).parseString(yaml)) {
+            if (event instanceof ScalarEvent) {
+                slices.add((ScalarEvent) event);
+            }
+        }
+        for (Event event : new Parse(LoadSettings.builder().build()).parseString(yaml)) {
+            if (event instanceof ScalarEvent) {
+                strings.add((ScalarEvent) event);
+                assertTrue(((ScalarEvent) event).getCharSequence() instanceof String);
+            }
+        }
+        assertEquals(12, slices.size());
+        for (int i = 0; i < slices.size(); i++) {
+            assertEquals(strings.get(i).getValue(), slices.get(i).getValue());
+            assertTrue(strings.get(i).getValue().contentEquals(slices.get(i).getCharSequence()));
+        }
+        assertFalse(slices.get(0).getCharSequence() instanceof String, "plain scalar is not copied");
+        assertFalse(slices.get(1).getCharSequence() instanceof String, "single-quoted scalar is not copied");
+        assertFalse(slices.get(3).getCharSequence() instanceof String, "double-quoted scalar is not copied");
+        assertTrue(slices.get(5).getCharSequence() instanceof String, "escaped scalar is copied");
+        assertTrue(slices.get(6).getCharSequence() instanceof String, "escaped quote is copied");
+        assertTrue(slices.get(7).getCharSequence() instanceof String, "multi-line scalar is copied");
+        assertFalse(slices.get(9).getCharSequence() instanceof String, "supplementary code point");
+        assertEquals("x", slices.get(11).getCharSequence().toString(), "the position after a supplementary code point");
+        assertFalse(slices.get(11).getCharSequence() instanceof String);
+    }
 }
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("fast")
+class ArrayQueueTest {
+
+    @Test
+    @DisplayName("Behave as a list when the head wraps around the array")
+    void sameAsList() {
+        ArrayQueue<Integer> queue = new ArrayQueue<>(2);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            queue.add(i);
+            expected.add(i);
+            if (i % 3 == 0) {
+                int index = Math.max(0, expected.size() - 2);
+                queue.add(index, -i);
+                expected.add(index, -i);
+            }
+            if (i % 2 == 0) {
+                assertEquals(expected.remove(0), queue.removeFirst());
+            }
+            assertEquals(expected.size(), queue.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.get(j), queue.get(j));
+            }
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.remove(0), queue.removeFirst());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Empty queue")
+    void empty() {
+        ArrayQueue<String> queue = new ArrayQueue<>(10);
+        assertThrows(NoSuchElementException.class, queue::removeFirst);
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.add(1, "a"));
+    }
+}
@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.snakeyaml.engine.v2.common.CharConstants.ESCAPES;
+import static org.snakeyaml.engine.v2.common.CharConstants.ESCAPE_CODES;
 import static org.snakeyaml.engine.v2.common.CharConstants.ESCAPE_REPLACEMENTS;
 
 @Tag("fast")
@@ -68,4 +69,20 @@ class CharConstantsTest {
         assertEquals(15, ESCAPES.size());
         assertEquals(Character.valueOf('\r'), ESCAPE_REPLACEMENTS.get(114));
     }
+
+    @Test
+    @DisplayName("The escape tables are the same as the maps")
+    void escapeTables() {
+        for (int c = -1; c < 0x3000; c++) {
+            Character replacement = ESCAPE_REPLACEMENTS.get(c);
+            assertEquals(replacement == null ? -1 : replacement, CharConstants.escapeReplacement(c));
+            Integer length = ESCAPE_CODES.get((char) c);
+            assertEquals(length == null || c < 0 ? 0 : length, CharConstants.escapeCodeLength(c));
+        }
+        assertEquals(10, CharConstants.hexDigit('a'));
+        assertEquals(15, CharConstants.hexDigit('F'));
+        assertEquals(9, CharConstants.hexDigit('9'));
+        assertEquals(-1, CharConstants.hexDigit('g'));
+        assertEquals(-1, CharConstants.hexDigit('\uFF11'), "Fullwidth digits are not hexadecimal digits");
+    }
 }
@@ -21,11 +21,20 @@ import org.junit.jupiter.api.Test;
 import org.snakeyaml.engine.v2.api.LoadSettings;
 import org.snakeyaml.engine.v2.api.lowlevel.Compose;
 import org.snakeyaml.engine.v2.exceptions.ComposerException;
+import org.snakeyaml.engine.v2.nodes.MappingNode;
 import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.nodes.NodeTuple;
+import org.snakeyaml.engine.v2.nodes.ScalarNode;
+import org.snakeyaml.engine.v2.nodes.SequenceNode;
+import org.snakeyaml.engine.v2.parser.ParserImpl;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -57,4 +66,52 @@ class ComposerTest {
         Node node = optionalNode.get();
         assertEquals("113", node.getAnchor().get().getValue());
     }
+
+    @Test
+    @DisplayName("Skip the values which are not required")
+    void skipNode() {
+        String data = "name: Bill\nitems: [a, {b: c}]\ndetails:\n  age: 18\n  tags: [x]\nlast: 1\n";
+        LoadSettings settings = LoadSettings.builder().build();
+        Composer composer = new Composer(new ParserImpl(new StreamReader(data, settings), settings), settings) {
+            @Override
+            protected void composeMappingChildren(List<NodeTuple> children, MappingNode node) {
+                Node key = composeKeyNode(node);
+                if (((ScalarNode) key).getValue().equals("name") || ((ScalarNode) key).getValue().equals("last")) {
+                    children.add(new NodeTuple(key, composeValueNode(node)));
+                } else {
+                    skipNode();
+                }
+            }
+        };
+        MappingNode node = (MappingNode) composer.getSingleNode().get();
+        assertEquals(2, node.getValue().size());
+        assertEquals("Bill", ((ScalarNode) node.getValue().get(0).getValueNode()).getValue());
+        assertEquals("1", ((ScalarNode) node.getValue().get(1).getValueNode()).getValue());
+    }
+
+    @Test
+    @DisplayName("The tags are shared by the loads and the long tags are not kept")
+    void sharedTags() {
+        String longTag = "!" + new String(new char[300]).replace('\0', 'x');
+        String data = "- !custom a\n- !custom b\n- " + longTag + " c\n- " + longTag + " d\n";
+        SequenceNode first = (SequenceNode) new Compose(LoadSettings.builder().build()).composeString(data).get();
+        SequenceNode second = (SequenceNode) new Compose(LoadSettings.builder().build()).composeString(data).get();
+        assertSame(first.getValue().get(0).getTag(), first.getValue().get(1).getTag());
+        assertSame(first.getValue().get(0).getTag(), second.getValue().get(0).getTag());
+        assertNotSame(first.getValue().get(2).getTag(), first.getValue().get(3).getTag());
+        assertEquals(longTag, first.getValue().get(3).getTag().getValue());
+    }
+
+    @Test
+    @DisplayName("The nesting depth of the collections is limited")
+    void maxNestingDepth() {
+        LoadSettings settings = LoadSettings.builder().setMaxNestingDepth(3).build();
+        Node node = new Compose(settings).composeString("a: [b, {c: d}]").get();
+        assertEquals(1, ((MappingNode) node).getValue().size());
+        ComposerException exception = assertThrows(ComposerException.class, () ->
+                new Compose(settings).composeString("a: [b, {c: [d]}]"));
+        assertTrue(exception.getMessage().contains("Nesting depth of the collections exceeds the specified max=3"),
+                exception.getMessage());
+        assertTrue(exception.getMessage().contains("line 1, column 12"), exception.getMessage());
+    }
 }
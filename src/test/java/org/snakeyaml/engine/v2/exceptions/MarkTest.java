@@ -19,7 +19,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Tag("fast")
@@ -44,6 +49,75 @@ class MarkTest {
         assertEquals("^", lines[2].trim());
     }
 
+    @Test
+    @DisplayName("Mark snippet for Latin-1 data")
+    void testGet_snippetLatin1() {
+        Mark mark = new Mark("test1", 0, 0, 0, "The first*line.\nThe last line.".getBytes(StandardCharsets.ISO_8859_1), 9);
+        assertEquals("    The first*line.\n             ^", mark.createSnippet());
+        assertEquals('*', mark.getBuffer()[9]);
+    }
+
+    @Test
+    @DisplayName("Mark snippet for supplementary code points in UTF-16")
+    void testGet_snippetSurrogates() {
+        Mark mark = new Mark("test1", 0, 0, 0, "\uD83D\uDE00first*line.".toCharArray(), 6);
+        assertEquals("    \uD83D\uDE00first*line.\n          ^", mark.createSnippet());
+    }
+
+    @Test
+    @DisplayName("Mark which does not keep the data")
+    void testReleasedData() {
+        char[] middle = new char[200];
+        Arrays.fill(middle, '-');
+        int[] data = ("*The first line.\n" + new String(middle) + "\nThe last line.").codePoints().toArray();
+        MarkDataSource source = new MarkDataSource(data, false);
+        Mark first = source.createMark("test1", 0, 0, 0, 0);
+        Mark last = source.createMark("test1", 222, 2, 4, 222);
+        assertEquals("    *The first line.\n    ^", first.createSnippet());
+        assertEquals(232, last.getBuffer().length);
+        source.release();
+        // the owner may reuse the data, the marks keep their lines
+        Arrays.fill(data, 'X');
+        assertTrue(first.hasSnippet());
+        assertEquals("    *The first line.\n    ^", first.createSnippet());
+        assertEquals("    The last line.\n        ^", last.createSnippet());
+        assertEquals(" in test1, line 3, column 5:\n    The last line.\n        ^", last.toString());
+        assertEquals(14, last.getBuffer().length);
+        assertEquals(4, last.getPointer());
+    }
+
+    @Test
+    @DisplayName("Mark keeps only the part of a long line around it when the data is released")
+    void testReleasedLongLine() {
+        StringBuilder builder = new StringBuilder("\uD83D\uDE00");
+        for (int i = 0; i < 1000; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        String data = builder.toString();
+        MarkDataSource source = new MarkDataSource(data, false);
+        Mark start = source.createMark("test1", 0, 0, 0, 0);
+        Mark middle = source.createMark("test1", 500, 0, 500, 500);
+        String startSnippet = start.createSnippet();
+        String middleSnippet = middle.createSnippet();
+        source.release();
+        assertEquals(startSnippet, start.createSnippet());
+        assertEquals(middleSnippet, middle.createSnippet());
+        assertTrue(middle.getBuffer().length < 300);
+    }
+
+    @Test
+    @DisplayName("Mark keeps the data when it is used in an exception")
+    void testKeepDataForException() {
+        char[] data = "*The first line.".toCharArray();
+        MarkDataSource source = new MarkDataSource(data, false);
+        Mark mark = source.createMark("test1", 0, 0, 0, 0);
+        ScannerException exception = new ScannerException("problem", Optional.of(mark));
+        // the owner may reuse or release the data
+        data[0] = 'X';
+        source.release();
+        assertEquals("problem\n in test1, line 1, column 1:\n    *The first line.\n    ^\n", exception.getMessage());
+    }
+
     @Test
     @DisplayName("Mark position")
     void testPosition() {
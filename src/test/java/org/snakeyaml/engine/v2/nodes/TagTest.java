@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.nodes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@org.junit.jupiter.api.Tag("fast")
+class TagTest {
+
+    @Test
+    void internStandardTags() {
+        assertSame(Tag.STR, Tag.intern("tag:yaml.org,2002:str"));
+        assertSame(Tag.MAP, Tag.intern("tag:yaml.org,2002:map"));
+        assertSame(Tag.ENV_TAG, Tag.intern("!ENV_VARIABLE"));
+    }
+
+    @Test
+    void internCustomTag() {
+        Tag tag = Tag.intern("!custom");
+        assertSame(tag, Tag.intern("!custom"));
+        assertEquals(new Tag("!custom"), tag);
+        assertEquals(tag, new Tag("!custom"));
+    }
+
+    @Test
+    void internLongTag() {
+        String value = "!" + new String(new char[300]).replace('\0', 'x');
+        Tag tag = Tag.intern(value);
+        assertNotSame(tag, Tag.intern(value));
+        assertEquals(tag, Tag.intern(value));
+    }
+
+    @Test
+    void internManyTags() {
+        Tag tag = Tag.intern("!first");
+        for (int i = 0; i < 10000; i++) {
+            assertEquals("!tag" + i, Tag.intern("!tag" + i).getValue());
+        }
+        // the cache is cleared when it is full
+        assertEquals(tag, Tag.intern("!first"));
+        assertSame(Tag.STR, Tag.intern("tag:yaml.org,2002:str"));
+    }
+
+    @Test
+    void internInvalidTag() {
+        assertThrows(IllegalArgumentException.class, () -> Tag.intern(""));
+        assertThrows(IllegalArgumentException.class, () -> Tag.intern(" !a"));
+        assertThrows(NullPointerException.class, () -> Tag.intern(null));
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@org.junit.jupiter.api.Tag("fast")
+class DocumentSplitterTest {
+
+    @Test
+    @DisplayName("Split at the document markers")
+    void split() {
+        String yaml = "a: 1\n--- b\n...\n# only comment\n...\n%YAML 1.2\n---\nc\r\nd\r...\n--- |\n  ---\n---\n...";
+        List<DocumentSplitter.Part> parts = DocumentSplitter.split(yaml);
+        assertEquals(5, parts.size());
+        assertEquals("a: 1\n", parts.get(0).getData().toString());
+        assertEquals(0, parts.get(0).getIndex());
+        assertEquals(0, parts.get(0).getLine());
+        assertEquals("--- b\n...\n", parts.get(1).getData().toString());
+        assertEquals(5, parts.get(1).getIndex());
+        assertEquals(1, parts.get(1).getLine());
+        // CR is not a line break for the scanner, the marker after CR does not split
+        assertEquals("%YAML 1.2\n---\nc\r\nd\r...\n", parts.get(2).getData().toString());
+        assertEquals(34, parts.get(2).getIndex());
+        assertEquals(5, parts.get(2).getLine());
+        assertEquals("--- |\n  ---\n", parts.get(3).getData().toString());
+        assertEquals(10, parts.get(3).getLine());
+        assertEquals("---\n...", parts.get(4).getData().toString());
+    }
+
+    @Test
+    @DisplayName("Empty stream has no parts")
+    void empty() {
+        assertTrue(DocumentSplitter.split("").isEmpty());
+    }
+}
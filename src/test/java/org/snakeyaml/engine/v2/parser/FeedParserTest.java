@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.snakeyaml.engine.usecases.external_test_suite.SuiteData;
+import org.snakeyaml.engine.usecases.external_test_suite.SuiteUtils;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.lowlevel.Parse;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.exceptions.Mark;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@org.junit.jupiter.api.Tag("fast")
+class FeedParserTest {
+
+    private static final String DATA = "%YAML 1.2\n--- !!str\nfirst\n...\n# comment\n---\nkey: [a, b]\n" +
+            "--- |\n  text\n  ---\n...\n---\nlast: \"é中😀\"\r\n";
+
+    private List<String> parse(String yaml) {
+        List<String> events = new ArrayList<>();
+        try {
+            for (Event event : new Parse(LoadSettings.builder().build()).parseString(yaml)) {
+                events.add(describe(event));
+            }
+        } catch (YamlEngineException e) {
+            events.add(e.getMessage());
+        }
+        return events;
+    }
+
+    /**
+     * The reader windows are filled with different amounts of the data, so only the position is compared
+     */
+    private String describe(Event event) {
+        Mark start = event.getStartMark().get();
+        Mark end = event.getEndMark().get();
+        return event + " " + start.getIndex() + ":" + start.getLine() + ":" + start.getColumn()
+                + "-" + end.getIndex() + ":" + end.getLine() + ":" + end.getColumn();
+    }
+
+    private void poll(FeedParser parser, List<String> events) {
+        Optional<Event> event;
+        while ((event = parser.pollEvent()).isPresent()) {
+            events.add(describe(event.get()));
+        }
+    }
+
+    @Test
+    @DisplayName("Feed the characters in chunks")
+    void feedChars() {
+        List<String> expected = parse(DATA);
+        for (int size = 1; size <= DATA.length(); size++) {
+            FeedParser parser = new FeedParser(LoadSettings.builder().build());
+            List<String> events = new ArrayList<>();
+            for (int i = 0; i < DATA.length(); i += size) {
+                parser.feed(DATA.substring(i, Math.min(DATA.length(), i + size)));
+                poll(parser, events);
+            }
+            assertFalse(parser.isFinished());
+            parser.endOfInput();
+            poll(parser, events);
+            assertTrue(parser.isFinished());
+            assertEquals(expected, events, "Chunk size: " + size);
+        }
+    }
+
+    @Test
+    @DisplayName("The same events and errors as for the whole stream")
+    void sameAsParse() {
+        for (SuiteData data : SuiteUtils.getAll()) {
+            String yaml = data.getInput();
+            List<String> expected = parse(yaml);
+            for (int size : new int[]{1, 3, 7, yaml.length() + 1}) {
+                FeedParser parser = new FeedParser(LoadSettings.builder().build());
+                List<String> events = new ArrayList<>();
+                try {
+                    for (int i = 0; i < yaml.length(); i += size) {
+                        parser.feed(yaml.substring(i, Math.min(yaml.length(), i + size)));
+                        poll(parser, events);
+                    }
+                    parser.endOfInput();
+                    poll(parser, events);
+                } catch (YamlEngineException e) {
+                    events.add(e.getMessage());
+                }
+                assertEquals(expected, events, data.getName() + ", chunk size: " + size);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Feed the bytes in chunks which split the characters")
+    void feedBytes() {
+        List<String> expected = parse(DATA);
+        byte[] bytes = DATA.getBytes(StandardCharsets.UTF_8);
+        for (int size = 1; size <= 7; size++) {
+            FeedParser parser = new FeedParser(LoadSettings.builder().build());
+            List<String> events = new ArrayList<>();
+            for (int i = 0; i < bytes.length; i += size) {
+                parser.feed(ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i)));
+                poll(parser, events);
+            }
+            parser.endOfInput();
+            poll(parser, events);
+            assertEquals(expected, events, "Chunk size: " + size);
+        }
+    }
+
+    @Test
+    @DisplayName("Document end markers without a document and CR")
+    void emptyDocuments() {
+        String data = "a\n...\n# comment\n...\n--- b\rc\r...\r--- d\n";
+        FeedParser parser = new FeedParser(LoadSettings.builder().build());
+        List<String> events = new ArrayList<>();
+        parser.feed(data);
+        parser.endOfInput();
+        poll(parser, events);
+        assertEquals(parse(data), events);
+    }
+
+    @Test
+    @DisplayName("Detect UTF-16 by the BOM")
+    void feedUtf16() {
+        FeedParser parser = new FeedParser(LoadSettings.builder().build());
+        parser.feed(ByteBuffer.wrap("\uFEFFabc".getBytes(StandardCharsets.UTF_16BE)));
+        parser.endOfInput();
+        List<String> events = new ArrayList<>();
+        poll(parser, events);
+        assertEquals(parse("abc"), events);
+    }
+
+    @Test
+    @DisplayName("A document is available before the end of the input")
+    void completeDocument() {
+        FeedParser parser = new FeedParser(LoadSettings.builder().build());
+        parser.feed("--- first\n-");
+        assertFalse(parser.pollEvent().isPresent(), "The end of the document is not known yet");
+        parser.feed("-- second\n");
+        assertEquals(Event.ID.StreamStart, parser.pollEvent().get().getEventId());
+        assertEquals(Event.ID.DocumentStart, parser.pollEvent().get().getEventId());
+        assertEquals(Event.ID.Scalar, parser.pollEvent().get().getEventId());
+        assertEquals(Event.ID.DocumentEnd, parser.pollEvent().get().getEventId());
+        assertFalse(parser.pollEvent().isPresent(), "More input is required");
+        assertFalse(parser.isFinished());
+        parser.endOfInput();
+        assertEquals(Event.ID.DocumentStart, parser.pollEvent().get().getEventId());
+        assertEquals(Event.ID.Scalar, parser.pollEvent().get().getEventId());
+        assertEquals(Event.ID.DocumentEnd, parser.pollEvent().get().getEventId());
+        assertEquals(Event.ID.StreamEnd, parser.pollEvent().get().getEventId());
+        assertFalse(parser.pollEvent().isPresent());
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    @DisplayName("The status tells more input from the end of the stream")
+    void status() {
+        FeedParser parser = new FeedParser(LoadSettings.builder().build());
+        assertEquals(FeedParser.Status.NEED_MORE_INPUT, parser.status());
+        parser.feed("--- a\n--- b\n");
+        assertEquals(FeedParser.Status.EVENT_AVAILABLE, parser.status());
+        assertEquals(FeedParser.Status.EVENT_AVAILABLE, parser.status(), "The event is not taken");
+        assertEquals(Event.ID.StreamStart, parser.pollEvent().get().getEventId());
+        poll(parser, new ArrayList<>());
+        assertEquals(FeedParser.Status.NEED_MORE_INPUT, parser.status());
+        parser.endOfInput();
+        List<Event.ID> ids = new ArrayList<>();
+        while (parser.status() == FeedParser.Status.EVENT_AVAILABLE) {
+            assertFalse(parser.isFinished());
+            ids.add(parser.pollEvent().get().getEventId());
+        }
+        assertEquals(Event.ID.StreamEnd, ids.get(ids.size() - 1));
+        assertEquals(FeedParser.Status.FINISHED, parser.status());
+        assertTrue(parser.isFinished());
+        assertFalse(parser.pollEvent().isPresent());
+    }
+
+    @Test
+    @DisplayName("Many documents in one chunk")
+    void manyDocuments() {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            data.append("--- ").append(i).append('\n');
+        }
+        FeedParser parser = new FeedParser(LoadSettings.builder().build());
+        parser.feed(data);
+        parser.feed("--- last");
+        parser.endOfInput();
+        int scalars = 0;
+        Optional<Event> event;
+        while ((event = parser.pollEvent()).isPresent()) {
+            if (event.get().getEventId() == Event.ID.Scalar) {
+                scalars++;
+            }
+        }
+        assertEquals(100001, scalars);
+    }
+
+    @Test
+    @DisplayName("Invalid input")
+    void invalidInput() {
+        FeedParser parser = new FeedParser(LoadSettings.builder().build());
+        parser.feed(ByteBuffer.wrap(new byte[]{'a', (byte) 0xC3, 'b'}));
+        assertThrows(YamlEngineException.class, parser::endOfInput);
+
+        FeedParser mixed = new FeedParser(LoadSettings.builder().build());
+        mixed.feed(ByteBuffer.wrap(new byte[]{'a'}));
+        assertThrows(IllegalStateException.class, () -> mixed.feed("b"));
+
+        FeedParser ended = new FeedParser(LoadSettings.builder().build());
+        ended.endOfInput();
+        assertThrows(IllegalStateException.class, () -> ended.feed("a"));
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.snakeyaml.engine.v2.api.Load;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.events.ScalarEvent;
+import org.snakeyaml.engine.v2.exceptions.Mark;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@org.junit.jupiter.api.Tag("fast")
+class FlowIndexParserTest {
+
+    private static final LoadSettings SETTINGS = LoadSettings.builder().setUseStructuralIndex(true).build();
+
+    private List<String> events(Parser parser) {
+        List<String> events = new ArrayList<>();
+        try {
+            while (parser.hasNext()) {
+                Event event = parser.next();
+                String value = event instanceof ScalarEvent ? " |" + ((ScalarEvent) event).getValue() + "|" : "";
+                events.add(event + value + " " + describe(event.getStartMark()) + "-" + describe(event.getEndMark()));
+            }
+        } catch (RuntimeException e) {
+            events.add(e.getMessage());
+        }
+        return events;
+    }
+
+    private String describe(Optional<Mark> mark) {
+        return mark.map(m -> m.getIndex() + ":" + m.getLine() + ":" + m.getColumn()).orElse("-");
+    }
+
+    private List<String> parse(String data, LoadSettings settings) {
+        return events(new ParserImpl(new StreamReader(data, settings), settings));
+    }
+
+    @Test
+    @DisplayName("JSON is parsed with the structural index to the same events")
+    void sameEvents() {
+        String[] documents = {
+                "{\"a\": 1, \"b\": [true, false, null], \"c\": {\"d\": \"e\"}}",
+                "[]", "{}", "  [ ]\n", "[[[]], {}]",
+                "{\n  \"key\": \"value\",\n  \"list\": [\n    1.5e3,\n    -2\n  ]\n}\n",
+                "[\"\\\"quoted\\\"\", \"\\u00e9\\t\\\\\", \"\\U0001F600\", \"é中😀\", \"\"]",
+                "[plain text, a.b/c, -1, <<, x-y]",
+                "{a: b, c, d:, \"e\":f, g: [h, i], j: }", "[a, [b,],]", "{a, }",
+                "{\"" + new String(new char[100]).replace('\0', 'k') + "\": [1, 2, 3]}"};
+        for (String data : documents) {
+            Parser parser = FlowIndexParser.create(data, SETTINGS);
+            assertTrue(parser instanceof FlowIndexParser, data);
+            assertEquals(parse(data, SETTINGS), events(parser), data);
+        }
+        LoadSettings noMarks = LoadSettings.builder().setUseStructuralIndex(true).setUseMarks(false)
+                .setUseScalarSlices(true).build();
+        String data = "{\"a\": [1, \"b\\n\"], c d: e}";
+        assertEquals(parse(data, noMarks), events(FlowIndexParser.create(data, noMarks)));
+    }
+
+    @Test
+    @DisplayName("Anything else is parsed as usual")
+    void fallback() {
+        String[] documents = {
+                "a: 1", "- a", "\"a\"", "[a] # comment", "['a']", "[&a a, *a]", "[!!str a]", "[a]\n---\n[b]",
+                "[a\r\n]", "[a :b]", "[a: b]", "{[a]: b}", "{a\n: b}", "[a, , b]", "[, a]", "[--- a]",
+                "[\"\\q\"]", "[\"a\nb\"]", "[\"a\"", "[a]]", "{\"" + new String(new char[1100]).replace('\0', 'k') + "\": 1}",
+                "[\u0001]", ""};
+        for (String data : documents) {
+            Parser parser = FlowIndexParser.create(data, SETTINGS);
+            assertTrue(parser instanceof ParserImpl, data);
+            assertEquals(parse(data, SETTINGS), events(parser), data);
+        }
+        assertTrue(FlowIndexParser.create("[1]", LoadSettings.builder().build()) instanceof ParserImpl,
+                "Not used by default");
+    }
+
+    @Test
+    @DisplayName("Skip a collection without creating the events of its content")
+    void skipCurrentNode() {
+        Parser parser = FlowIndexParser.create("{\"a\": [1, {\"b\": 2}], \"c\": 3}", SETTINGS);
+        for (int i = 0; i < 4; i++) {
+            parser.next();
+        }
+        parser.skipCurrentNode();
+        assertEquals("=VAL \"c", parser.next().toString());
+        parser.skipCurrentNode();
+        assertEquals(Event.ID.MappingEnd, parser.next().getEventId());
+        assertEquals(Event.ID.DocumentEnd, parser.next().getEventId());
+        assertEquals(Event.ID.StreamEnd, parser.next().getEventId());
+        assertFalse(parser.hasNext());
+    }
+
+    @Test
+    @DisplayName("Load JSON with the structural index")
+    void load() {
+        String data = "{\"name\": \"test\", \"values\": [1, 2.5, true, null, \"\\u0041\"]}";
+        assertEquals(new Load(LoadSettings.builder().build()).loadFromString(data),
+                new Load(SETTINGS).loadFromString(data));
+    }
+}
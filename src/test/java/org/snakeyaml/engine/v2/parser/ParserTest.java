@@ -19,13 +19,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.snakeyaml.engine.v2.api.LoadSettings;
 import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.exceptions.ScannerException;
 import org.snakeyaml.engine.v2.scanner.ScannerImpl;
 import org.snakeyaml.engine.v2.scanner.StreamReader;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -56,5 +60,87 @@ class ParserTest {
             assertEquals("No more Events found.", e.getMessage());
         }
     }
-}
 
+    private Parser createParser(String data) {
+        LoadSettings settings = LoadSettings.builder().build();
+        return new ParserImpl(new StreamReader(data, settings), settings);
+    }
+
+    /**
+     * Skip the node which starts with the given event and collect the rest of the events
+     */
+    private List<String> skip(String data, int skippedEvent) {
+        Parser parser = createParser(data);
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < skippedEvent; i++) {
+            events.add(parser.next().toString());
+        }
+        parser.skipCurrentNode();
+        while (parser.hasNext()) {
+            events.add(parser.next().toString());
+        }
+        return events;
+    }
+
+    /**
+     * Parse the data without the events of the node which starts with the given event
+     */
+    private List<String> parseWithout(String data, int skippedEvent) {
+        Parser parser = createParser(data);
+        List<String> events = new ArrayList<>();
+        int depth = 0;
+        for (int i = 0; parser.hasNext(); i++) {
+            Event event = parser.next();
+            if (i >= skippedEvent && (i == skippedEvent || depth > 0)) {
+                if (event.getEventId() == Event.ID.SequenceStart || event.getEventId() == Event.ID.MappingStart) {
+                    depth++;
+                } else if (event.getEventId() == Event.ID.SequenceEnd || event.getEventId() == Event.ID.MappingEnd) {
+                    depth--;
+                }
+            } else {
+                events.add(event.toString());
+            }
+        }
+        return events;
+    }
+
+    @Test
+    @DisplayName("Skip a node without the events of its content")
+    void skipCurrentNode() {
+        String[] documents = {
+                "a: [b, \"c]\", {d: 'e''}'}, # x]\n  f, !!str g, &h i, *h, ? j, k: l, 'm':n]\nz: 1\n",
+                "a:\n  b: [1, 2]\n  c:\n  - d\n  - {e: f}\nz: 1\n",
+                "a:\n- b\n- c: d\n-\n- [e]\nz: 1\n",
+                "- [a, b: c, d]\n- {a: [b, {c: d}], e}\n- z\n",
+                "[{a: [1, 2]}, 3]\n",
+                "--- !!map &anchor\nkey: value\n--- next\n"};
+        for (String data : documents) {
+            List<String> all = parseWithout(data, Integer.MAX_VALUE);
+            for (int i = 0; i < all.size(); i++) {
+                String event = all.get(i);
+                if (event.startsWith("=VAL") || event.startsWith("=ALI") || event.startsWith("+SEQ")
+                        || event.startsWith("+MAP")) {
+                    assertEquals(parseWithout(data, i), skip(data, i), data + " event " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Only a node can be skipped")
+    void skipNotNode() {
+        Parser parser = createParser("a");
+        assertThrows(IllegalStateException.class, parser::skipCurrentNode);
+    }
+
+    @Test
+    @DisplayName("Skip an unclosed flow collection")
+    void skipUnclosed() {
+        Parser parser = createParser("a: [b,\n  {c: d}, e\n");
+        for (int i = 0; i < 4; i++) {
+            parser.next();
+        }
+        ScannerException exception = assertThrows(ScannerException.class, parser::skipCurrentNode);
+        assertTrue(exception.getMessage().contains("found unexpected end of stream"), exception.getMessage());
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.snakeyaml.engine.v2.api.Load;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.lowlevel.Compose;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@org.junit.jupiter.api.Tag("fast")
+class PathFilterParserTest {
+
+    private static final String YAML = "apiVersion: v1\n" +
+            "metadata:\n" +
+            "  name: web\n" +
+            "  labels: {app: web, tier: front}\n" +
+            "spec:\n" +
+            "  replicas: 2\n" +
+            "  containers:\n" +
+            "  - name: nginx\n" +
+            "    image: nginx:1.19\n" +
+            "    ports: [80, 443]\n" +
+            "  - name: sidecar\n" +
+            "    image: envoy\n" +
+            "  ? [complex, key]\n" +
+            "  : value\n";
+
+    private Object load(String yaml, boolean keepStructure, String... paths) {
+        LoadSettings settings = LoadSettings.builder()
+                .setPathFilter(Optional.of(new PathFilter(Arrays.asList(paths), keepStructure))).build();
+        return new Load(settings).loadFromString(yaml);
+    }
+
+    @Test
+    @DisplayName("Keep the collections on the way to the selected nodes")
+    void keepStructure() {
+        assertEquals("{metadata={labels={app=web, tier=front}}, spec={containers=[{image=nginx:1.19}, {image=envoy}]}}",
+                load(YAML, true, "spec.containers[*].image", "metadata.labels").toString());
+        assertEquals("{spec={containers=[{name=sidecar}]}}",
+                load(YAML, true, "spec.containers[1].name").toString());
+        assertEquals("{spec={containers=[{ports=[443]}, {}]}}",
+                load(YAML, true, "spec.*[*].ports[1]").toString());
+        assertEquals("{spec={}}", load(YAML, true, "spec.replicas.value", "kind").toString());
+        assertEquals(null, load("scalar", true, "a"));
+    }
+
+    @Test
+    @DisplayName("Provide only the selected nodes")
+    void selectedNodes() {
+        assertEquals("[{app=web, tier=front}, nginx:1.19, envoy]",
+                load(YAML, false, "spec.containers[*].image", "metadata.labels").toString());
+        assertEquals("[[80, 443]]", load(YAML, false, "spec.containers[*].ports", "spec.containers[*].ports[0]").toString());
+        assertEquals("[]", load(YAML, false, "[0]").toString());
+        assertEquals("[b]", load("[a, b, c]", false, "[1]").toString());
+    }
+
+    @Test
+    @DisplayName("Every document is filtered")
+    void allDocuments() {
+        LoadSettings settings = LoadSettings.builder()
+                .setPathFilter(Optional.of(new PathFilter(Collections.singletonList("a"), false))).build();
+        List<Object> documents = new ArrayList<>();
+        for (Object document : new Load(settings).loadAllFromString("a: 1\nb: 2\n---\nb: 3\n--- [a]\n")) {
+            documents.add(document);
+        }
+        assertEquals("[[1], [], []]", documents.toString());
+    }
+
+    @Test
+    @DisplayName("The events of the filter")
+    void events() {
+        LoadSettings settings = LoadSettings.builder().build();
+        Parser parser = new PathFilterParser(new ParserImpl(new StreamReader("{a: &x 1, b: *x, c: [2]}", settings), settings),
+                new PathFilter(Arrays.asList("c", "a"), true));
+        List<Event.ID> ids = new ArrayList<>();
+        while (parser.hasNext()) {
+            ids.add(parser.next().getEventId());
+        }
+        assertEquals(Arrays.asList(Event.ID.StreamStart, Event.ID.DocumentStart, Event.ID.MappingStart,
+                Event.ID.Scalar, Event.ID.Scalar, Event.ID.Scalar, Event.ID.SequenceStart, Event.ID.Scalar,
+                Event.ID.SequenceEnd, Event.ID.MappingEnd, Event.ID.DocumentEnd, Event.ID.StreamEnd), ids);
+    }
+
+    @Test
+    @DisplayName("An alias to a skipped anchor is undefined")
+    void aliasToSkippedAnchor() {
+        LoadSettings settings = LoadSettings.builder()
+                .setPathFilter(Optional.of(new PathFilter(Collections.singletonList("b"), true))).build();
+        assertThrows(org.snakeyaml.engine.v2.exceptions.ComposerException.class,
+                () -> new Compose(settings).composeString("a: &x 1\nb: *x\n"));
+    }
+
+    @Test
+    @DisplayName("Invalid paths")
+    void invalidPaths() {
+        for (String path : new String[]{"", ".a", "a.", "a..b", "a[", "a[x]", "a[-1]", "a[0]b", "a.[0]"}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new PathFilter(Collections.singletonList(path), true), path);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PathFilter(Collections.emptyList(), true));
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.parser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.lowlevel.Parse;
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.common.ScalarStyle;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.exceptions.ParserException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@org.junit.jupiter.api.Tag("fast")
+class YamlCursorTest {
+
+    private final Parse parse = new Parse(LoadSettings.builder().build());
+
+    @Test
+    @DisplayName("The cursor provides the same events as the parser")
+    void sameEvents() {
+        String yaml = "%YAML 1.2\n--- !!map\nkey: &a 'value'\nlist:\n- *a\n- [1, {b: c}]\n- !!str\n...\n";
+        List<Event.ID> expected = new ArrayList<>();
+        for (Event event : parse.parseReader(new java.io.StringReader(yaml))) {
+            expected.add(event.getEventId());
+        }
+        YamlCursor cursor = parse.cursorString(yaml);
+        List<Event.ID> ids = new ArrayList<>();
+        while (cursor.hasNext()) {
+            ids.add(cursor.next());
+        }
+        assertEquals(expected, ids);
+        assertThrows(NoSuchElementException.class, cursor::next);
+    }
+
+    @Test
+    @DisplayName("The data of the current event")
+    void currentEvent() {
+        YamlCursor cursor = parse.cursorString("--- !!map\nkey: &a 'value'\nlist: [*a, !!str ]\n");
+        assertNull(cursor.eventId());
+        assertEquals(Event.ID.StreamStart, cursor.next());
+        assertEquals(Event.ID.DocumentStart, cursor.next());
+        assertTrue(cursor.isExplicit());
+        assertEquals(Event.ID.MappingStart, cursor.next());
+        assertEquals("tag:yaml.org,2002:map", cursor.tag());
+        assertEquals(FlowStyle.BLOCK, cursor.flowStyle());
+        assertEquals(0, cursor.depth());
+        assertEquals(Event.ID.Scalar, cursor.next());
+        assertEquals("key", cursor.scalarValue());
+        assertEquals(ScalarStyle.PLAIN, cursor.scalarStyle());
+        assertTrue(cursor.isImplicit());
+        assertNull(cursor.tag());
+        assertEquals(1, cursor.depth());
+        assertEquals(Event.ID.Scalar, cursor.next());
+        assertEquals("value", cursor.scalarValue());
+        assertEquals(ScalarStyle.SINGLE_QUOTED, cursor.scalarStyle());
+        assertFalse(cursor.isImplicit());
+        assertEquals("a", cursor.anchor());
+        assertEquals(15, cursor.startMark().get().getIndex());
+        assertEquals(Event.ID.Scalar, cursor.next());
+        assertNull(cursor.anchor());
+        assertEquals(Event.ID.SequenceStart, cursor.next());
+        assertEquals(FlowStyle.FLOW, cursor.flowStyle());
+        assertThrows(IllegalStateException.class, cursor::scalarValue);
+        assertEquals(Event.ID.Alias, cursor.next());
+        assertEquals("a", cursor.anchor());
+        assertEquals(2, cursor.depth());
+        assertEquals(Event.ID.Scalar, cursor.next());
+        assertEquals("", cursor.scalarValue());
+        assertEquals("tag:yaml.org,2002:str", cursor.tag());
+        assertEquals(Event.ID.SequenceEnd, cursor.next());
+        assertEquals(1, cursor.depth());
+        assertEquals(Event.ID.MappingEnd, cursor.next());
+        assertEquals(0, cursor.depth());
+        assertEquals(Event.ID.DocumentEnd, cursor.next());
+        assertFalse(cursor.isExplicit());
+        assertEquals(Event.ID.StreamEnd, cursor.next());
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    @DisplayName("Invalid input")
+    void invalidInput() {
+        YamlCursor cursor = parse.cursorString("[a, b");
+        assertThrows(ParserException.class, () -> {
+            while (cursor.hasNext()) {
+                cursor.next();
+            }
+        });
+    }
+}
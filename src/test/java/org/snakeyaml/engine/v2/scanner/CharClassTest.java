@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.scanner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.snakeyaml.engine.v2.common.CharConstants;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Tag("fast")
+class CharClassTest {
+
+    @Test
+    @DisplayName("The classes contain the same chars as CharConstants")
+    void sameAsCharConstants() {
+        for (int c = 0; c < 0x3000; c++) {
+            String s = "Code point " + c;
+            assertEquals(CharConstants.NULL_OR_LINEBR.has(c), CharClass.is(c, CharClass.NULL_OR_LINEBR), s);
+            assertEquals(CharConstants.NULL_BL_T_LINEBR.has(c), CharClass.is(c, CharClass.NULL_BL_T_LINEBR), s);
+            assertEquals(CharConstants.URI_CHARS.has(c), CharClass.is(c, CharClass.URI), s);
+            assertEquals(CharConstants.NULL_BL_T_LINEBR.has(c, ",?[]{}"), CharClass.is(c, CharClass.PLAIN_END_FLOW), s);
+            assertEquals(CharConstants.NULL_BL_T_LINEBR.has(c, "-?:,[]{}#&*!|>'\"%@`"),
+                    CharClass.is(c, CharClass.NOT_PLAIN_START), s);
+        }
+    }
+
+    @Test
+    @DisplayName("Supplementary code points do not belong to any class")
+    void supplementary() {
+        assertFalse(CharClass.is(0x1F600, -1));
+        assertFalse(CharClass.is(Character.MAX_CODE_POINT, -1));
+    }
+}
@@ -18,12 +18,15 @@ package org.snakeyaml.engine.v2.scanner;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.exceptions.ScannerException;
+import org.snakeyaml.engine.v2.tokens.ScalarToken;
 import org.snakeyaml.engine.v2.tokens.Token;
 
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -48,5 +51,64 @@ class ScannerTest {
             assertEquals("No more Tokens found.", e.getMessage());
         }
     }
-}
 
+    private String scanScalar(String data) {
+        ScannerImpl scanner = new ScannerImpl(new StreamReader(data, LoadSettings.builder().build()));
+        while (!scanner.checkToken(Token.ID.Scalar)) {
+            scanner.next();
+        }
+        return ((ScalarToken) scanner.next()).getValue();
+    }
+
+    @Test
+    @DisplayName("Quoted scalars with and without escape sequences")
+    void quotedScalars() {
+        assertEquals("single line", scanScalar("\"single line\""));
+        assertEquals("it's", scanScalar("'it''s'"));
+        assertEquals("a \\ b", scanScalar("'a \\ b'"));
+        assertEquals("tab\t\"é😀 A\u00a0", scanScalar("\"tab\\t\\\"\\u00e9\\U0001F600 \\x41\\_\""));
+        assertEquals("folded line \"x\"", scanScalar("\"folded  \n  line \\\"x\\\"\""));
+        assertEquals("text  \nnext", scanScalar("\"text  \\n\\\n  next\""));
+        ScannerException hex = assertThrows(ScannerException.class, () -> scanScalar("\"\\u00g9\""));
+        assertTrue(hex.getMessage().contains("expected escape sequence of 4 hexadecimal numbers, but found: 00g9"),
+                hex.getMessage());
+        ScannerException codePoint = assertThrows(ScannerException.class, () -> scanScalar("\"\\U00110000\""));
+        assertTrue(codePoint.getMessage().contains("found invalid code point in the escape sequence: 00110000"),
+                codePoint.getMessage());
+    }
+
+    @Test
+    @DisplayName("Literal and folded block scalars")
+    void blockScalars() {
+        assertEquals("line 1\n  line 2\n\nline 3\n", scanScalar("|\n  line 1\n    line 2\n\n  line 3\n"));
+        assertEquals("a b\nc\n\n", scanScalar(">+\n a\n b\n\n c\n\n"));
+        assertEquals("text\r\nnext", scanScalar("|-\n text\r\n next\n"));
+        assertEquals(" a\n", scanScalar("|2\n   a\n  \n"));
+        String line = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+        StringBuilder block = new StringBuilder("|\n");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            block.append("  ").append(line).append('\n');
+            expected.append(line).append('\n');
+        }
+        assertEquals(expected.toString(), scanScalar(block.toString()));
+    }
+
+    @Test
+    @DisplayName("Check the next token with a mask of the IDs")
+    void checkTokenMask() {
+        ScannerImpl scanner = new ScannerImpl(new StreamReader("[a]", LoadSettings.builder().build()));
+        long content = Token.ID.maskOf(Token.ID.Scalar, Token.ID.FlowSequenceStart);
+        assertFalse(scanner.checkToken(content));
+        assertTrue(scanner.checkToken(Token.ID.StreamStart.getMask()));
+        scanner.next();
+        assertTrue(scanner.checkToken(content));
+        scanner.next();
+        assertTrue(scanner.checkToken(content));
+        scanner.next();
+        assertFalse(scanner.checkToken(content));
+        scanner.next();
+        scanner.next();
+        assertFalse(scanner.checkToken(-1L), "No more tokens");
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2018, http://www.snakeyaml.org
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.snakeyaml.engine.v2.scanner;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.exceptions.Mark;
+import org.snakeyaml.engine.v2.exceptions.ReaderException;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("fast")
+class StreamReaderTest {
+
+    private static String readAll(StreamReader reader) {
+        StringBuilder builder = new StringBuilder();
+        while (reader.peek() != '\u0000') {
+            builder.appendCodePoint(reader.peek());
+            reader.forward();
+        }
+        return builder.toString();
+    }
+
+    @Test
+    @DisplayName("Decode UTF-8 when the sequences are split between the updates")
+    void utf8SmallBuffer() {
+        String data = "a: é€😀\nb: 😀😀 end";
+        for (int bufferSize = 2; bufferSize < 12; bufferSize++) {
+            LoadSettings settings = LoadSettings.builder().setBufferSize(bufferSize).build();
+            byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+            assertEquals(data, readAll(new StreamReader(new ByteArrayInputStream(bytes), settings)));
+            assertEquals(data, readAll(new StreamReader(ByteBuffer.wrap(bytes), settings)));
+        }
+    }
+
+    @Test
+    @DisplayName("Skip UTF-8 BOM and decode UTF-16 with BOM")
+    void bom() {
+        LoadSettings settings = LoadSettings.builder().build();
+        byte[] utf8 = new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, (byte) 49};
+        assertEquals("1", readAll(new StreamReader(new ByteArrayInputStream(utf8), settings)));
+        byte[] utf16 = new byte[]{(byte) 0xFF, (byte) 0xFE, (byte) 49, (byte) 0};
+        assertEquals("1", readAll(new StreamReader(new ByteArrayInputStream(utf16), settings)));
+        assertEquals("1", readAll(new StreamReader(ByteBuffer.wrap(utf16), settings)));
+    }
+
+    @Test
+    @DisplayName("Read the bytes between the position and the limit of ByteBuffer")
+    void byteBufferRange() {
+        ByteBuffer buffer = ByteBuffer.wrap("xxa: 1yy".getBytes(StandardCharsets.UTF_8));
+        buffer.position(2);
+        buffer.limit(6);
+        assertEquals("a: 1", readAll(new StreamReader(buffer, LoadSettings.builder().build())));
+        assertEquals(2, buffer.position(), "ByteBuffer must not be changed");
+    }
+
+    @Test
+    @DisplayName("Map the file region by region")
+    void mappedWindows() throws IOException {
+        String data = "a: é€😀\nb: 😀😀 end";
+        Path file = Files.createTempFile("mapped", ".yaml");
+        try {
+            Files.write(file, data.getBytes(StandardCharsets.UTF_8));
+            LoadSettings settings = LoadSettings.builder().build();
+            for (int window = 1; window < 12; window++) {
+                try (FileChannel channel = FileChannel.open(file)) {
+                    assertEquals(data, readAll(new StreamReader(ByteInput.of(channel, window), settings)));
+                }
+            }
+            try (FileChannel channel = FileChannel.open(file)) {
+                channel.position(3);
+                assertEquals(data.substring(3), readAll(new StreamReader(channel, settings)),
+                        "the file must be read from the position of the channel");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Mark is not corrupted when the window is reused")
+    void markIsNotChanged() {
+        for (boolean retain : new boolean[]{false, true}) {
+            LoadSettings settings = LoadSettings.builder().setBufferSize(8).setRetainMarkData(retain).build();
+            StreamReader reader = new StreamReader("first line\nsecond line\nthird line", settings);
+            reader.forward(6);
+            Mark mark = reader.getMark().get();
+            while (reader.peek() != '\u0000') {
+                reader.forward();
+                reader.peek(20);
+            }
+            // the mark keeps its line when the window is released (or the whole window when the data is retained)
+            assertEquals("    first line\n          ^", mark.createSnippet());
+            assertEquals(6, mark.getColumn());
+        }
+    }
+
+    @Test
+    @DisplayName("Keep ASCII, Latin-1, BMP and supplementary code points in the same stream")
+    void widenWindow() {
+        String data = "ascii: text\nlatin1: é\nbmp: €\nsupplementary: 😀\nascii again";
+        for (int bufferSize = 2; bufferSize < 12; bufferSize++) {
+            LoadSettings settings = LoadSettings.builder().setBufferSize(bufferSize).build();
+            assertEquals(data, readAll(new StreamReader(data, settings)));
+            byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+            assertEquals(data, readAll(new StreamReader(ByteBuffer.wrap(bytes), settings)));
+        }
+        StreamReader reader = new StreamReader(data, LoadSettings.builder().build());
+        reader.forward(7);
+        Mark mark = reader.getMark().get();
+        assertEquals("text", reader.prefix(4));
+        reader.forward(data.indexOf("😀") - 7);
+        assertEquals("😀\nas", reader.prefix(4));
+        assertEquals("    ascii: text\n           ^", mark.createSnippet(), "Mark must not be changed when the window is widened");
+    }
+
+    @Test
+    @DisplayName("Long lookahead")
+    void longLookahead() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append(i % 10);
+        }
+        LoadSettings settings = LoadSettings.builder().setBufferSize(16).setUseMarks(false).build();
+        StreamReader reader = new StreamReader(builder.toString(), settings);
+        assertEquals('9', reader.peek(9999));
+        assertEquals('\u0000', reader.peek(10000));
+        reader.forward(5000);
+        assertEquals(builder.substring(5000, 5010), reader.prefix(10));
+    }
+
+    @Test
+    @DisplayName("Count the run of a quoted scalar across the windows")
+    void countUntil() {
+        String data = "plain é€😀 text\\\"end\"\nnext";
+        for (int bufferSize = 2; bufferSize < 12; bufferSize++) {
+            LoadSettings settings = LoadSettings.builder().setBufferSize(bufferSize).build();
+            StreamReader reader = new StreamReader(data, settings);
+            assertEquals(14, reader.countUntil('"', '\\'));
+            assertEquals(15, reader.countUntil('"', '"'), "The run is counted again from the same position");
+            reader.forward(16);
+            assertEquals(3, reader.countUntil('"', '\\'));
+            reader.forward(4);
+            assertEquals(0, reader.countUntil('"', '"'), "A line break ends the run");
+            reader.forward();
+            assertEquals(4, reader.countUntil('"', '"'), "The end of the data ends the run");
+        }
+    }
+
+    @Test
+    @DisplayName("Count the line length and append the line")
+    void appendLine() {
+        String data = "é€😀 x\r y\n\nlast";
+        for (int bufferSize = 2; bufferSize < 12; bufferSize++) {
+            LoadSettings settings = LoadSettings.builder().setBufferSize(bufferSize).build();
+            StreamReader reader = new StreamReader(data, settings);
+            assertEquals(8, reader.lineLength(0), "Only LF ends the line");
+            assertEquals(5, reader.lineLength(3));
+            StringBuilder builder = new StringBuilder();
+            reader.appendForward(builder, 8);
+            assertEquals("é€😀 x\r y", builder.toString());
+            assertEquals(8, reader.getColumn());
+            reader.forward();
+            assertEquals(0, reader.lineLength(0));
+            assertEquals(4, reader.lineLength(1), "The end of the data ends the line");
+        }
+    }
+
+    @Test
+    @DisplayName("Read the characters directly from CharSequence and char[]")
+    void charSequence() {
+        LoadSettings settings = LoadSettings.builder().setBufferSize(4).build();
+        String data = "ab\uD83D\uDE00cd\u00e9\u4e2d";
+        assertEquals(data, readAll(new StreamReader(new StringBuilder(data), settings)));
+        char[] array = ("[" + data + "]").toCharArray();
+        assertEquals(data, readAll(new StreamReader(array, 1, data.length(), settings)));
+        ReaderException nonPrintable = assertThrows(ReaderException.class, () ->
+                readAll(new StreamReader(new StringBuilder("abc\u0001"), settings)));
+        assertEquals(1, nonPrintable.getCodePoint());
+        ReaderException surrogate = assertThrows(ReaderException.class, () ->
+                readAll(new StreamReader(new char[]{'a', '\uD83D', '\uDE00'}, 0, 2, settings)));
+        assertEquals(0xD83D, surrogate.getCodePoint());
+    }
+
+    @Test
+    @DisplayName("Report non-printable characters and malformed UTF-8")
+    void errors() {
+        LoadSettings settings = LoadSettings.builder().build();
+        ReaderException nonPrintable = assertThrows(ReaderException.class, () ->
+                readAll(new StreamReader(new ByteArrayInputStream(new byte[]{49, 1}), settings)));
+        assertEquals(1, nonPrintable.getCodePoint());
+        YamlEngineException malformed = assertThrows(YamlEngineException.class, () ->
+                readAll(new StreamReader(new ByteArrayInputStream(new byte[]{49, (byte) 0xC3, 49}), settings)));
+        assertTrue(malformed.toString().contains("MalformedInputException"), malformed.toString());
+    }
+}